@@ -0,0 +1,65 @@
+package ru.hogwarts.school.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+import ru.hogwarts.school.dto.AvatarPreview;
+import ru.hogwarts.school.model.Avatar;
+import ru.hogwarts.school.service.AvatarService;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvatarServiceBenchmark {
+
+    private static final long STUDENT_ID = 1L;
+
+    private ConfigurableApplicationContext context;
+    private AvatarService avatarService;
+    private MockMultipartFile avatarFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        BenchmarkContext.populate(context, 1, 10);
+        avatarService = context.getBean(AvatarService.class);
+
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(300, 300, BufferedImage.TYPE_INT_RGB), "png", image);
+        avatarFile = new MockMultipartFile("avatar", "avatar.png", "image/png", image.toByteArray());
+        avatarService.uploadAvatar(STUDENT_ID, avatarFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void upload() throws IOException {
+        avatarService.uploadAvatar(STUDENT_ID, avatarFile);
+    }
+
+    @Benchmark
+    public long download() throws IOException {
+        Avatar avatar = avatarService.findAvatar(STUDENT_ID);
+        return Files.copy(Path.of(avatar.getFilePath()), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public AvatarPreview preview() throws IOException {
+        return avatarService.findAvatarPreview(STUDENT_ID, 128);
+    }
+}
@@ -0,0 +1,62 @@
+package ru.hogwarts.school.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.hogwarts.school.SchoolApplication;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application without the web tier against an in-memory H2 database
+ * and fills it with generated faculties and students.
+ */
+final class BenchmarkContext {
+
+    private static final String[] NAME_PREFIXES = {"A", "B", "C", "D", "E", "H", "L", "R"};
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() throws IOException {
+        Path avatarsDir = Files.createTempDirectory("hogwarts-bench-avatars");
+        return new SpringApplicationBuilder(SchoolApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.liquibase.enabled=false",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--avatars.dir.path=" + avatarsDir,
+                        "--logging.level.root=WARN");
+    }
+
+    static void populate(ConfigurableApplicationContext context, int faculties, int students) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM avatar");
+        jdbcTemplate.update("DELETE FROM student");
+        jdbcTemplate.update("DELETE FROM faculty");
+
+        List<Object[]> facultyRows = new ArrayList<>();
+        for (int i = 1; i <= faculties; i++) {
+            facultyRows.add(new Object[]{i, "Faculty number " + i, "Color " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO faculty (id, name, color) VALUES (?, ?, ?)", facultyRows);
+
+        List<Object[]> studentRows = new ArrayList<>(1000);
+        for (int i = 1; i <= students; i++) {
+            String name = NAME_PREFIXES[i % NAME_PREFIXES.length] + "student " + i;
+            studentRows.add(new Object[]{i, name, 16 + i % 5, 1 + i % faculties});
+            if (studentRows.size() == 1000 || i == students) {
+                jdbcTemplate.batchUpdate("INSERT INTO student (id, name, age, faculty_id) VALUES (?, ?, ?, ?)",
+                        studentRows);
+                studentRows.clear();
+            }
+        }
+    }
+}
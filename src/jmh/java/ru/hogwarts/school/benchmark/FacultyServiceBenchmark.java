@@ -0,0 +1,47 @@
+package ru.hogwarts.school.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.service.FacultyService;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FacultyServiceBenchmark {
+
+    @Param({"10", "1000"})
+    public int faculties;
+
+    private ConfigurableApplicationContext context;
+    private FacultyService facultyService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        BenchmarkContext.populate(context, faculties, faculties * 50);
+        facultyService = context.getBean(FacultyService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String longestFacultyName() {
+        return facultyService.getLongestFacultyName();
+    }
+
+    @Benchmark
+    public Collection<Faculty> allFaculties() {
+        return facultyService.getAllFaculties();
+    }
+}
@@ -0,0 +1,169 @@
+package ru.hogwarts.school.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop HTTP load generator for comparing a running application in platform-thread
+ * and virtual-thread mode. Each target URL is hit by {@code concurrency} clients for every
+ * path in turn and throughput, p50, p99 and max latency are printed per target and path.
+ * <p>
+ * The dev profile, active by default, listens on 8081, so the platform-thread baseline is moved
+ * to 8080 explicitly. Both instances must run on Java 21: on older runtimes the virtual profile is
+ * ignored and the two instances are identical, which is still useful to see the run-to-run noise.
+ *
+ * <pre>
+ * ./mvnw -Pjava21 spring-boot:run -Dspring-boot.run.arguments=--server.port=8080
+ * ./mvnw -Pjava21 spring-boot:run -Dspring-boot.run.profiles=dev,virtual
+ * ./mvnw -Pjmh test-compile exec:java -Dexec.mainClass=ru.hogwarts.school.benchmark.HttpLoadTest \
+ *     -Dexec.args="urls=http://localhost:8080,http://localhost:8081 concurrency=200 seconds=30"
+ * </pre>
+ */
+public final class HttpLoadTest {
+
+    private static final String DEFAULT_PATHS = "/student,/faculty/1/students,/avatar/1/avatar";
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        List<String> urls = Arrays.asList(options.getOrDefault("urls", "http://localhost:8080").split(","));
+        List<String> paths = Arrays.asList(options.getOrDefault("paths", DEFAULT_PATHS).split(","));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "100"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "5"));
+
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(clientExecutor)
+                .build();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            System.out.printf("%-28s %-24s %10s %8s %10s %10s %10s %10s%n",
+                    "target", "path", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+            for (String url : urls) {
+                for (String path : paths) {
+                    URI uri = URI.create(url + path);
+                    run(client, workers, uri, concurrency, warmupSeconds);
+                    Result result = run(client, workers, uri, concurrency, seconds);
+                    System.out.printf("%-28s %-24s %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                            url, path, result.requests(), result.errors(), result.throughput(),
+                            result.percentileMillis(0.50), result.percentileMillis(0.99),
+                            result.percentileMillis(1.0));
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+            clientExecutor.shutdownNow();
+        }
+    }
+
+    private static Result run(HttpClient client, ExecutorService workers, URI uri,
+                              int concurrency, int seconds) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        List<Future<Recorder>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(workers.submit(() -> {
+                Recorder recorder = new Recorder();
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<InputStream> response = client.send(request,
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            body.transferTo(OutputStream.nullOutputStream());
+                        }
+                        recorder.record(System.nanoTime() - start, response.statusCode() >= 400);
+                    } catch (IOException e) {
+                        recorder.record(System.nanoTime() - start, true);
+                    }
+                }
+                return recorder;
+            }));
+        }
+
+        Recorder total = new Recorder();
+        for (Future<Recorder> future : futures) {
+            total.merge(future.get());
+        }
+        return new Result(total.sortedLatencies(), total.errors, seconds);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator > 0) {
+                options.put(arg.substring(0, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private record Result(long[] latencies, long errors, int seconds) {
+
+        long requests() {
+            return latencies.length;
+        }
+
+        double throughput() {
+            return (double) latencies.length / seconds;
+        }
+
+        double percentileMillis(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long latencyNanos, boolean error) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], false);
+            }
+            errors += other.errors;
+        }
+
+        long[] sortedLatencies() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package ru.hogwarts.school.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import org.openjdk.jmh.annotations.*;
+import ru.hogwarts.school.dto.StudentSummary;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialization cost of the list endpoints: entity graphs through {@link ObjectMapper} against
+ * projections written with {@link JsonGenerator}, plus the gzip pass Tomcat adds for clients that
+ * accept it. Body sizes before and after compression are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"1", "1000", "100000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new Hibernate6Module());
+
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+
+    private List<Student> students;
+    private List<StudentSummary> summaries;
+    private Faculty faculty;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        students = new ArrayList<>(size);
+        summaries = new ArrayList<>(size);
+        faculty = new Faculty(1L, "Gryffindor", "Red");
+        for (int i = 0; i < size; i++) {
+            Student student = new Student(i, "Student number " + i, 16 + i % 5);
+            student.setFaculty(faculty);
+            students.add(student);
+            summaries.add(new StudentSummary(student.getId(), student.getName(), student.getAge()));
+        }
+        faculty.setStudents(students);
+
+        byte[] body = studentSummaries();
+        System.out.printf("%nstudents=%d json=%d bytes gzip=%d bytes%n", size, body.length, gzip(body).length);
+    }
+
+    @Benchmark
+    public byte[] students() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] studentSummaries() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (StudentSummary summary : summaries) {
+                summary.writeTo(generator);
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] studentSummariesGzip() throws IOException {
+        return gzip(studentSummaries());
+    }
+
+    @Benchmark
+    public byte[] facultyWithStudents() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(faculty);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
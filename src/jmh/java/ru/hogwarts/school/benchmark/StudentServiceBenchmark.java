@@ -0,0 +1,73 @@
+package ru.hogwarts.school.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.repository.StudentRepository;
+import ru.hogwarts.school.service.StudentService;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregate queries against a growing student table. Run with {@code -prof gc} to compare
+ * allocation per call of the database aggregates with the findAll-based baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int students;
+
+    private ConfigurableApplicationContext context;
+    private StudentService studentService;
+    private StudentRepository studentRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = BenchmarkContext.start();
+        BenchmarkContext.populate(context, 4, students);
+        studentService = context.getBean(StudentService.class);
+        studentRepository = context.getBean(StudentRepository.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public double averageAge() {
+        return studentService.getAverageAge();
+    }
+
+    @Benchmark
+    public double averageAgeInJava() {
+        return studentRepository.findAll().stream()
+                .mapToInt(Student::getAge)
+                .average()
+                .orElse(0.0);
+    }
+
+    @Benchmark
+    public long studentCount() {
+        return studentService.getStudentCount();
+    }
+
+    @Benchmark
+    public List<AgeCount> ageHistogram() {
+        return studentService.getAgeHistogram();
+    }
+
+    @Benchmark
+    public List<String> namesStartingWithA() {
+        return studentService.getAllNamesStartingWithA();
+    }
+}
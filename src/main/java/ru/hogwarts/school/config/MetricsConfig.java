@@ -0,0 +1,59 @@
+package ru.hogwarts.school.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.cache.CacheManager;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds a {@code school.repository.rows} summary to every Spring Data repository.
+     * Call latency is already timed by Spring Boot as {@code spring.data.repository.invocations}.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryRowsMetricsPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                                    proxyFactory.addAdvice(new RepositoryRowsInterceptor(meterRegistry,
+                                            information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Publishes {@code cache.gets}, {@code cache.puts} and {@code cache.evictions} for every Hibernate
+     * second-level cache region. Reads the JCache statistics, so it does not depend on
+     * {@code hibernate.generate_statistics}.
+     */
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return registry -> {
+            RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactory.class)
+                    .getSessionFactoryOptions().getServiceRegistry().requireService(RegionFactory.class);
+            if (regionFactory instanceof JCacheRegionFactory jCacheRegionFactory) {
+                CacheManager cacheManager = jCacheRegionFactory.getCacheManager();
+                for (String cacheName : cacheManager.getCacheNames()) {
+                    JCacheMetrics.monitor(registry, cacheManager.getCache(cacheName));
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package ru.hogwarts.school.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+class RepositoryRowsInterceptor implements MethodInterceptor {
+
+    static final String METRIC_NAME = "school.repository.rows";
+
+    private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+    private final String repository;
+    private volatile MeterRegistry meterRegistry;
+
+    RepositoryRowsInterceptor(ObjectProvider<MeterRegistry> meterRegistryProvider, String repository) {
+        this.meterRegistryProvider = meterRegistryProvider;
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        Class<?> returnType = invocation.getMethod().getReturnType();
+        if (returnType == void.class || Number.class.isAssignableFrom(returnType)
+                || returnType.isPrimitive() || returnType == Boolean.class) {
+            return result;
+        }
+        MeterRegistry registry = meterRegistry();
+        if (registry == null) {
+            return result;
+        }
+
+        DistributionSummary rows = DistributionSummary.builder(METRIC_NAME)
+                .baseUnit("rows")
+                .tag("repository", repository)
+                .tag("method", invocation.getMethod().getName())
+                .register(registry);
+        if (result instanceof Stream<?> stream) {
+            AtomicLong count = new AtomicLong();
+            return stream.peek(row -> count.incrementAndGet()).onClose(() -> rows.record(count.get()));
+        }
+        rows.record(countRows(result));
+        return result;
+    }
+
+    private static long countRows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    private MeterRegistry meterRegistry() {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            registry = meterRegistryProvider.getIfAvailable();
+            meterRegistry = registry;
+        }
+        return registry;
+    }
+}
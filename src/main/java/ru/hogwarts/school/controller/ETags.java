@@ -0,0 +1,58 @@
+package ru.hogwarts.school.controller;
+
+import org.springframework.http.ETag;
+import org.springframework.util.DigestUtils;
+import ru.hogwarts.school.model.Student;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Entity tags derived from the {@code @Version} columns, so conditional requests are answered
+ * without serializing the body.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String ofVersion(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Weak tag over the ids and versions of a collection: it changes when a member is added, removed or edited.
+     */
+    static String ofStudents(Collection<Student> students) {
+        StringBuilder members = new StringBuilder();
+        students.stream()
+                .sorted(Comparator.comparingLong(Student::getId))
+                .forEach(student -> members.append(student.getId()).append(':')
+                        .append(student.getVersion()).append(','));
+        return "W/\"" + DigestUtils.md5DigestAsHex(members.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Versions listed as strong tags in an {@code If-Match} header; {@code null} for {@code *}.
+     * Weak and foreign tags never match, so they are left out.
+     */
+    static List<Long> expectedVersions(String ifMatch) {
+        List<Long> versions = new ArrayList<>();
+        for (ETag tag : ETag.parse(ifMatch)) {
+            if (tag.isWildcard()) {
+                return null;
+            }
+            if (!tag.weak()) {
+                try {
+                    versions.add(Long.parseLong(tag.tag()));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return versions;
+    }
+}
@@ -1,32 +1,85 @@
 package ru.hogwarts.school.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.hogwarts.school.dto.FacultyBatchItem;
+import ru.hogwarts.school.dto.FacultyStats;
 import ru.hogwarts.school.model.Faculty;
 import ru.hogwarts.school.model.Student;
 import ru.hogwarts.school.service.FacultyService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.List;
 
 
 @RestController
 @RequestMapping("/faculty")
 public class FacultyController {
 
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 1000;
+
     private final FacultyService facultyService;
+    private final ObjectWriter facultyWriter;
 
-    public FacultyController(FacultyService facultyService) {
+    public FacultyController(FacultyService facultyService, ObjectMapper objectMapper) {
         this.facultyService = facultyService;
+        this.facultyWriter = objectMapper.writerFor(Faculty.class);
     }
 
     @GetMapping("{id}")
     public ResponseEntity<Faculty> getFacultyInfo(@PathVariable Long id) {
-        return facultyService.findFaculty(id);
+        ResponseEntity<Faculty> response = facultyService.findFaculty(id);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        Faculty faculty = response.getBody();
+        return ResponseEntity.ok().eTag(ETags.ofVersion(faculty.getVersion())).body(faculty);
     }
 
     @GetMapping
-    public ResponseEntity<Collection<Faculty>> getAllFaculties() {
-        return ResponseEntity.ok(facultyService.getAllFaculties());
+    public ResponseEntity<Collection<Faculty>> getAllFaculties(@RequestParam(required = false) Long after,
+                                                               @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(facultyService.getAllFaculties());
+        }
+        int pageLimit = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        if (pageLimit <= 0 || pageLimit > MAX_PAGE_LIMIT || (after != null && after < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.getFacultiesAfter(after == null ? 0 : after, pageLimit));
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<FacultyBatchItem>> batchGetFaculties(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_PAGE_LIMIT || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.getFacultiesByIds(ids));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamFaculties() {
+        StreamingResponseBody body = out -> facultyService.forEachFaculty(faculty -> {
+            try {
+                out.write(facultyWriter.writeValueAsBytes(faculty));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @PostMapping
@@ -36,12 +89,20 @@ public class FacultyController {
     }
 
     @PutMapping
-    public ResponseEntity<Faculty> editFaculty(@RequestBody Faculty faculty) {
-        Faculty foundFaculty = facultyService.editFaculty(faculty);
+    public ResponseEntity<Faculty> editFaculty(@RequestBody Faculty faculty,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Faculty foundFaculty;
+        try {
+            foundFaculty = ifMatch == null
+                    ? facultyService.editFaculty(faculty)
+                    : facultyService.editFaculty(faculty, ETags.expectedVersions(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
+        }
         if (foundFaculty == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(foundFaculty);
+        return ResponseEntity.ok().eTag(ETags.ofVersion(foundFaculty.getVersion())).body(foundFaculty);
     }
 
     @DeleteMapping("{id}")
@@ -61,17 +122,40 @@ public class FacultyController {
         return ResponseEntity.ok(facultyService.getAllFaculties());
     }
 
+    @GetMapping("/search/prefix")
+    public ResponseEntity<Collection<Faculty>> findFacultiesByNamePrefix(@RequestParam String prefix,
+                                                                         @RequestParam(defaultValue = "20") int limit) {
+        if (prefix.isBlank() || limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.findByNamePrefix(prefix, limit));
+    }
+
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<Collection<Faculty>> findFacultiesByNameSimilarTo(@RequestParam("q") String query,
+                                                                            @RequestParam(defaultValue = "20") int limit) {
+        if (query.isBlank() || limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.findByNameSimilarTo(query, limit));
+    }
+
     @GetMapping("/{id}/students")
     public ResponseEntity<Collection<Student>> getFacultyStudents(@PathVariable Long id) {
-        ResponseEntity<Faculty> facultyResponse = facultyService.findFaculty(id);
-        if (facultyResponse.getStatusCode() == HttpStatus.NOT_FOUND) {
-            return ResponseEntity.notFound().build();
+        ResponseEntity<Faculty> facultyResponse = facultyService.findFacultyWithStudents(id);
+        if (!facultyResponse.getStatusCode().is2xxSuccessful()) {
+            return ResponseEntity.status(facultyResponse.getStatusCode()).build();
         }
 
         Faculty faculty = facultyResponse.getBody();
         Collection<Student> students = faculty.getStudents();
 
-        return ResponseEntity.ok(students);
+        return ResponseEntity.ok().eTag(ETags.ofStudents(students)).body(students);
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Collection<FacultyStats>> getFacultyStats() {
+        return ResponseEntity.ok(facultyService.getFacultyStats());
     }
 
     @GetMapping("/longest-name")
@@ -3,25 +3,35 @@ package ru.hogwarts.school.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.stream.LongStream;
+import ru.hogwarts.school.dto.SumResult;
+import ru.hogwarts.school.dto.SumStrategy;
+import ru.hogwarts.school.service.MathService;
 
 @RestController
 @RequestMapping("/math")
 public class MathController {
 
+    private final MathService mathService;
+
+    public MathController(MathService mathService) {
+        this.mathService = mathService;
+    }
 
     @GetMapping("/sum-parallel")
     public ResponseEntity<Long> getSumParallel() {
-        long n = 1_000_000L;
-
-        long sum = LongStream.rangeClosed(1, n)
-                .parallel()
-                .sum();
-
+        return ResponseEntity.ok(mathService.sum(1_000_000L, SumStrategy.PARALLEL_STREAM, null).result());
+    }
 
-        return ResponseEntity.ok(sum);
+    @GetMapping("/sum")
+    public ResponseEntity<SumResult> getSum(@RequestParam(defaultValue = "1000000") long n,
+                                            @RequestParam(defaultValue = "PARALLEL_STREAM") SumStrategy strategy,
+                                            @RequestParam(required = false) Integer parallelism) {
+        try {
+            return ResponseEntity.ok(mathService.sum(n, strategy, parallelism));
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
-
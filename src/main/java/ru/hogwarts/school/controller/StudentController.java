@@ -1,13 +1,28 @@
 package ru.hogwarts.school.controller;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.dto.StudentBatchItem;
+import ru.hogwarts.school.dto.StudentImportResult;
 import ru.hogwarts.school.model.Faculty;
 import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.service.StudentImportService;
 import ru.hogwarts.school.service.StudentService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -16,15 +31,32 @@ import java.util.List;
 @RequestMapping("/student")
 public class StudentController {
 
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private static final String TEXT_CSV_VALUE = "text/csv";
+
     private final StudentService studentService;
+    private final StudentImportService studentImportService;
+    private final ObjectWriter studentWriter;
+    private final JsonFactory jsonFactory;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService, StudentImportService studentImportService,
+                             ObjectMapper objectMapper) {
         this.studentService = studentService;
+        this.studentImportService = studentImportService;
+        this.studentWriter = objectMapper.writerFor(Student.class);
+        this.jsonFactory = objectMapper.getFactory();
     }
 
     @GetMapping("{id}")
     public ResponseEntity<Student> getStudentInfo(@PathVariable Long id) {
-        return studentService.findStudent(id);
+        ResponseEntity<Student> response = studentService.findStudent(id);
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            return response;
+        }
+        Student student = response.getBody();
+        return ResponseEntity.ok().eTag(ETags.ofVersion(student.getVersion())).body(student);
     }
 
 
@@ -34,13 +66,35 @@ public class StudentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StudentImportResult> importStudentsJson(InputStream body) throws IOException {
+        try {
+            return ResponseEntity.ok(studentImportService.importJson(body));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping(value = "/bulk", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<StudentImportResult> importStudentsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(studentImportService.importCsv(body));
+    }
+
     @PutMapping
-    public ResponseEntity<Student> editStudent(@RequestBody Student student) {
-        Student foundStudent = studentService.editStudent(student);
+    public ResponseEntity<Student> editStudent(@RequestBody Student student,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Student foundStudent;
+        try {
+            foundStudent = ifMatch == null
+                    ? studentService.editStudent(student)
+                    : studentService.editStudent(student, ETags.expectedVersions(ifMatch));
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
+        }
         if (foundStudent == null) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(foundStudent);
+        return ResponseEntity.ok().eTag(ETags.ofVersion(foundStudent.getVersion())).body(foundStudent);
     }
 
     @DeleteMapping("{id}")
@@ -49,9 +103,79 @@ public class StudentController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Writes the whole table as one JSON array straight from a projection query,
+     * so neither entities nor the full list are held in memory.
+     */
     @GetMapping
-    public ResponseEntity<Collection<Student>> getAllStudents() {
-        return ResponseEntity.ok(studentService.getAllStudents());
+    public ResponseEntity<StreamingResponseBody> getAllStudents() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                studentService.forEachStudentSummary(student -> {
+                    try {
+                        student.writeTo(generator);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<Collection<Student>> getStudentsAfter(@RequestParam long after,
+                                                                @RequestParam(required = false) Integer limit) {
+        return getStudentsPage(after, limit == null ? DEFAULT_PAGE_LIMIT : limit);
+    }
+
+    @GetMapping(params = {"limit", "!after"})
+    public ResponseEntity<Collection<Student>> getFirstStudents(@RequestParam int limit) {
+        return getStudentsPage(0, limit);
+    }
+
+    private ResponseEntity<Collection<Student>> getStudentsPage(long after, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT || after < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentService.getStudentsAfter(after, limit));
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<StudentBatchItem>> getStudentsByIds(@RequestParam List<Long> ids) {
+        return batchGet(ids);
+    }
+
+    @PostMapping("/batch-get")
+    public ResponseEntity<List<StudentBatchItem>> batchGetStudents(@RequestBody List<Long> ids) {
+        return batchGet(ids);
+    }
+
+    private ResponseEntity<List<StudentBatchItem>> batchGet(List<Long> ids) {
+        if (ids.size() > MAX_PAGE_LIMIT || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentService.getStudentsByIds(ids));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStudents() {
+        StreamingResponseBody body = out -> studentService.forEachStudent(student -> {
+            try {
+                out.write(studentWriter.writeValueAsBytes(student));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping ("/by-age")
@@ -91,6 +215,16 @@ public class StudentController {
         return ResponseEntity.ok(faculty);
     }
 
+    @GetMapping("/names")
+    public ResponseEntity<List<String>> getNamesStartingWith(@RequestParam String prefix,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "100") int size) {
+        if (prefix.isBlank() || page < 0 || size <= 0 || size > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentService.getNamesStartingWith(prefix, page, size));
+    }
+
     @GetMapping("/names/starting-with-a")
     public ResponseEntity<List<String>> getNamesStartingWithA() {
         List<String> names = studentService.getAllNamesStartingWithA();
@@ -102,5 +236,15 @@ public class StudentController {
         double averageAge = studentService.getAverageAge();
         return ResponseEntity.ok(averageAge);
     }
+
+    @GetMapping("/count")
+    public ResponseEntity<Long> getStudentCount() {
+        return ResponseEntity.ok(studentService.getStudentCount());
+    }
+
+    @GetMapping("/age-histogram")
+    public ResponseEntity<List<AgeCount>> getAgeHistogram() {
+        return ResponseEntity.ok(studentService.getAgeHistogram());
+    }
 }
 
@@ -0,0 +1,16 @@
+package ru.hogwarts.school.dto;
+
+public interface AvatarInfo {
+
+    Long getId();
+
+    String getFilePath();
+
+    String getMediaType();
+
+    long getFileSize();
+
+    String getContentHash();
+
+    Long getStudentId();
+}
@@ -0,0 +1,10 @@
+package ru.hogwarts.school.dto;
+
+import ru.hogwarts.school.model.Faculty;
+
+public record FacultyBatchItem(long id, boolean found, Faculty faculty) {
+
+    public static FacultyBatchItem of(long id, Faculty faculty) {
+        return new FacultyBatchItem(id, faculty != null, faculty);
+    }
+}
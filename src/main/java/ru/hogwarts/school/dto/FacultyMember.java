@@ -0,0 +1,10 @@
+package ru.hogwarts.school.dto;
+
+public interface FacultyMember {
+
+    Long getFacultyId();
+
+    int getAge();
+
+    String getName();
+}
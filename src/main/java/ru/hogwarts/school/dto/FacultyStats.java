@@ -0,0 +1,10 @@
+package ru.hogwarts.school.dto;
+
+public record FacultyStats(long facultyId,
+                           String facultyName,
+                           long studentCount,
+                           double averageAge,
+                           Integer minAge,
+                           Integer maxAge,
+                           String longestStudentName) {
+}
@@ -0,0 +1,13 @@
+package ru.hogwarts.school.dto;
+
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+public record StudentBatchItem(long id, boolean found, Student student, Faculty faculty) {
+
+    public static StudentBatchItem of(long id, Student student) {
+        return student == null
+                ? new StudentBatchItem(id, false, null, null)
+                : new StudentBatchItem(id, true, student, student.getFaculty());
+    }
+}
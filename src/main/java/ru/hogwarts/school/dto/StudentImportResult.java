@@ -0,0 +1,7 @@
+package ru.hogwarts.school.dto;
+
+import java.util.List;
+
+public record StudentImportResult(int imported, int failed, List<StudentImportError> errors,
+                                  long elapsedMillis, double rowsPerSecond) {
+}
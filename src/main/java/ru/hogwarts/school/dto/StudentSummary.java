@@ -0,0 +1,20 @@
+package ru.hogwarts.school.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Student columns selected without building the entity; written field by field
+ * in the same shape as the serialized {@link ru.hogwarts.school.model.Student}.
+ */
+public record StudentSummary(long id, String name, int age) {
+
+    public void writeTo(JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", id);
+        generator.writeStringField("name", name);
+        generator.writeNumberField("age", age);
+        generator.writeEndObject();
+    }
+}
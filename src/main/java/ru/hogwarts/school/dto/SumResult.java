@@ -0,0 +1,4 @@
+package ru.hogwarts.school.dto;
+
+public record SumResult(SumStrategy strategy, long n, long result, int parallelism, long elapsedNanos) {
+}
@@ -0,0 +1,9 @@
+package ru.hogwarts.school.dto;
+
+public enum SumStrategy {
+    SEQUENTIAL,
+    PARALLEL_STREAM,
+    FORK_JOIN,
+    CLOSED_FORM,
+    VIRTUAL_THREADS
+}
@@ -0,0 +1,43 @@
+package ru.hogwarts.school.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets through one of every {@code sampleRate} INFO events whose message pattern starts with
+ * {@code prefix}, counted separately for each pattern, i.e. for each call site. The decision is
+ * made before the message is formatted, so dropped events cost a map lookup and an increment.
+ * Loggers switched to DEBUG or finer are not sampled.
+ */
+public class InvocationLogSamplingFilter extends TurboFilter {
+
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private String prefix = "Was invoked method";
+    private int sampleRate = 1;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (sampleRate <= 1 || level != Level.INFO || format == null || !format.startsWith(prefix)
+                || logger.getEffectiveLevel().toInt() < Level.INFO_INT) {
+            return FilterReply.NEUTRAL;
+        }
+        long invocation = counters.computeIfAbsent(format, key -> new AtomicLong()).getAndIncrement();
+        return invocation % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+}
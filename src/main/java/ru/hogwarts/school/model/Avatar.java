@@ -2,7 +2,6 @@ package ru.hogwarts.school.model;
 
 import jakarta.persistence.*;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 @Entity
@@ -15,9 +14,7 @@ public class Avatar {
     private String filePath;
     private String mediaType;
     private long fileSize;
-
-    @Lob
-    private byte[] data;
+    private String contentHash;
 
     @OneToOne
     private Student student;
@@ -65,12 +62,12 @@ public class Avatar {
         this.fileSize = fileSize;
     }
 
-    public byte[] getData() {
-        return data;
+    public String getContentHash() {
+        return contentHash;
     }
 
-    public void setData(byte[] data) {
-        this.data = data;
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
     }
 
     public Student getStudent() {
@@ -85,12 +82,12 @@ public class Avatar {
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
         Avatar avatar = (Avatar) o;
-        return fileSize == avatar.fileSize && Objects.equals(id, avatar.id) && Objects.equals(filePath, avatar.filePath) && Objects.equals(mediaType, avatar.mediaType) && Objects.deepEquals(data, avatar.data) && Objects.equals(student, avatar.student);
+        return fileSize == avatar.fileSize && Objects.equals(id, avatar.id) && Objects.equals(filePath, avatar.filePath) && Objects.equals(mediaType, avatar.mediaType) && Objects.equals(contentHash, avatar.contentHash) && Objects.equals(student, avatar.student);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, filePath, mediaType, fileSize, Arrays.hashCode(data), student);
+        return Objects.hash(id, filePath, mediaType, fileSize, contentHash, student);
     }
 
     @Override
@@ -100,7 +97,7 @@ public class Avatar {
                 ", filePath='" + filePath + '\'' +
                 ", mediaType='" + mediaType + '\'' +
                 ", fileSize=" + fileSize +
-                ", data=" + Arrays.toString(data) +
+                ", contentHash='" + contentHash + '\'' +
                 ", student=" + student +
                 '}';
     }
@@ -1,6 +1,9 @@
 package ru.hogwarts.school.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -8,6 +11,8 @@ import java.util.Objects;
 
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Faculty {
 
     @Id
@@ -17,6 +22,10 @@ public class Faculty {
     private String name;
     private String color;
 
+    @Version
+    @JsonIgnore
+    private Long version;
+
     public Faculty() {
     }
 
@@ -26,7 +35,8 @@ public class Faculty {
         this.color = color;
     }
 
-    @OneToMany(mappedBy = "faculty", fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "faculty", fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private Collection<Student> students = new ArrayList<>();
 
     public long getId() {
@@ -53,6 +63,14 @@ public class Faculty {
         this.color = color;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public Collection<Student> getStudents() {
         return students;
     }
@@ -5,6 +5,8 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.hogwarts.school.dto.AvatarInfo;
 import ru.hogwarts.school.model.Avatar;
 
 public interface AvatarRepository extends JpaRepository<Avatar, Long> {
@@ -13,4 +15,11 @@ Optional<Avatar> findByStudentId(Long studentId);
 
 Page<Avatar> findAll(Pageable pageable);
 
-}
\ No newline at end of file
+@Query(value = "SELECT a.id AS id, a.filePath AS filePath, a.mediaType AS mediaType, " +
+        "a.fileSize AS fileSize, a.contentHash AS contentHash, a.student.id AS studentId FROM Avatar a",
+        countQuery = "SELECT COUNT(a) FROM Avatar a")
+Page<AvatarInfo> findAllInfo(Pageable pageable);
+
+long countByContentHash(String contentHash);
+
+}
@@ -1,15 +1,48 @@
 package ru.hogwarts.school.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import ru.hogwarts.school.model.Faculty;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface FacultyRepository extends JpaRepository<Faculty, Long> {
+
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Faculty> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Collection<Faculty> findByColorIgnoreCase(String color);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Collection<Faculty> findByNameIgnoreCase(String name);
 
+    @Query(value = "SELECT * FROM faculty WHERE upper(name) LIKE upper(:pattern) ESCAPE '\\' " +
+            "ORDER BY upper(name), id LIMIT :limit", nativeQuery = true)
+    List<Faculty> searchByNamePattern(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM faculty WHERE name % :query " +
+            "ORDER BY similarity(name, :query) DESC, id LIMIT :limit", nativeQuery = true)
+    List<Faculty> searchByNameSimilarity(@Param("query") String query, @Param("limit") int limit);
+
+    @EntityGraph(attributePaths = "students")
+    Optional<Faculty> findWithStudentsById(long id);
+
+    List<Faculty> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT f FROM Faculty f ORDER BY f.id")
+    Stream<Faculty> streamAll();
+
 }
\ No newline at end of file
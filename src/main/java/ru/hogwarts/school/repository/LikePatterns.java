@@ -0,0 +1,16 @@
+package ru.hogwarts.school.repository;
+
+/**
+ * Builds LIKE patterns for queries declaring {@code ESCAPE '\'}.
+ */
+public final class LikePatterns {
+
+    private LikePatterns() {
+    }
+
+    public static String startingWith(String prefix) {
+        return prefix.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+}
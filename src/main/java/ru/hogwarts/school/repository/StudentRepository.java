@@ -1,13 +1,24 @@
 package ru.hogwarts.school.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.dto.FacultyMember;
+import ru.hogwarts.school.dto.StudentSummary;
 import ru.hogwarts.school.model.Student;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
+
     Collection<Student> findByAge(int age);
 
     Collection<Student> findByAgeBetween(int minAge, int maxAge);
@@ -21,4 +32,28 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     @Query(value = "SELECT * FROM student ORDER BY id DESC LIMIT 5", nativeQuery = true)
     List<Student> findLastFiveStudents();
 
+    @Query("SELECT upper(s.name) FROM Student s WHERE upper(s.name) LIKE upper(:pattern) ESCAPE '\\' " +
+            "ORDER BY upper(s.name)")
+    List<String> findUpperCaseNamesLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT s.age AS age, COUNT(s) AS count FROM Student s GROUP BY s.age ORDER BY s.age")
+    List<AgeCount> getAgeHistogram();
+
+    List<Student> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    @Query("SELECT s FROM Student s LEFT JOIN FETCH s.faculty WHERE s.id IN :ids")
+    List<Student> findAllWithFacultyByIdIn(@Param("ids") Collection<Long> ids);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s FROM Student s ORDER BY s.id")
+    Stream<Student> streamAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s.faculty.id AS facultyId, s.age AS age, s.name AS name FROM Student s WHERE s.faculty IS NOT NULL")
+    Stream<FacultyMember> streamFacultyMembers();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new ru.hogwarts.school.dto.StudentSummary(s.id, s.name, s.age) FROM Student s ORDER BY s.id")
+    Stream<StudentSummary> streamSummaries();
+
 }
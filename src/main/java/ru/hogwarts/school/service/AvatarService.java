@@ -3,6 +3,8 @@ package ru.hogwarts.school.service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
+import ru.hogwarts.school.dto.AvatarInfo;
+import ru.hogwarts.school.dto.AvatarPreview;
 import ru.hogwarts.school.model.Avatar;
 
 import java.io.IOException;
@@ -13,6 +15,8 @@ public interface AvatarService {
 
     Avatar findAvatar(Long studentId);
 
-    Page<Avatar> getAllAvatars(Pageable pageable);
+    AvatarPreview findAvatarPreview(Long studentId, int size) throws IOException;
+
+    Page<AvatarInfo> getAllAvatars(Pageable pageable);
 
 }
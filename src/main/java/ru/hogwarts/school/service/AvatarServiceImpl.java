@@ -1,6 +1,7 @@
 package ru.hogwarts.school.service;
 
 
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,16 +9,30 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
+import ru.hogwarts.school.dto.AvatarInfo;
+import ru.hogwarts.school.dto.AvatarPreview;
 import ru.hogwarts.school.model.Avatar;
 import ru.hogwarts.school.model.Student;
 import ru.hogwarts.school.repository.AvatarRepository;
 import ru.hogwarts.school.repository.StudentRepository;
-import static java.nio.file.StandardOpenOption.CREATE_NEW;
 
-import java.io.*;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.Optional;
 
 
@@ -27,21 +42,41 @@ public class AvatarServiceImpl implements AvatarService {
 
     private static final Logger logger = LoggerFactory.getLogger(AvatarServiceImpl.class);
 
-    @Value("${avatars.dir.path}")
-    private String avatarsDir;
+    private static final String PREVIEW_MEDIA_TYPE = "image/png";
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    private static final int SIGNATURE_LENGTH = 12;
+
+    @Value("${avatars.max-size:300KB}")
+    private DataSize maxSize;
 
     private final StudentRepository studentRepository;
     private final AvatarRepository avatarRepository;
+    private final AvatarThumbnailService thumbnailService;
+    private final ContentAddressedAvatarStore avatarStore;
+    // Avatar is not in the second-level cache, so concurrent lookups for one student are coalesced here.
+    // The read paths run without a transaction: waiters must block before taking a pool connection,
+    // and only the leader's repository call holds one.
+    private final SingleFlight<Long, Optional<Avatar>> avatarLoads;
+    // runs after the upload transaction has completed, so it needs a transaction of its own
+    private final TransactionTemplate referenceCounts;
 
-    public AvatarServiceImpl(StudentRepository studentRepository, AvatarRepository avatarRepository) {
+    public AvatarServiceImpl(StudentRepository studentRepository, AvatarRepository avatarRepository,
+                             AvatarThumbnailService thumbnailService, ContentAddressedAvatarStore avatarStore,
+                             MeterRegistry meterRegistry, PlatformTransactionManager transactionManager) {
         this.studentRepository = studentRepository;
         this.avatarRepository = avatarRepository;
+        this.thumbnailService = thumbnailService;
+        this.avatarStore = avatarStore;
+        this.avatarLoads = new SingleFlight<>("avatar", meterRegistry);
+        this.referenceCounts = new TransactionTemplate(transactionManager);
+        this.referenceCounts.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.referenceCounts.setReadOnly(true);
     }
 
-
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
     public Avatar findAvatar(Long studentId) {
         logger.info("Was invoked method to find avatar for student id={}", studentId);
-        Avatar avatar = avatarRepository.findByStudentId(studentId)
+        Avatar avatar = findAvatarByStudentId(studentId)
                 .orElse(new Avatar());
         if (avatar.getId() == null) {
             logger.warn("No avatar found for student id={}", studentId);
@@ -51,6 +86,29 @@ public class AvatarServiceImpl implements AvatarService {
         return avatar;
     }
 
+    private Optional<Avatar> findAvatarByStudentId(Long studentId) {
+        return avatarLoads.execute(studentId, () -> avatarRepository.findByStudentId(studentId));
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public AvatarPreview findAvatarPreview(Long studentId, int size) throws IOException {
+        logger.info("Was invoked method to find avatar preview for student id={}, size={}", studentId, size);
+        Optional<Avatar> avatarOpt = findAvatarByStudentId(studentId);
+        if (avatarOpt.isEmpty() || avatarOpt.get().getFilePath() == null) {
+            logger.warn("No avatar found for student id={}", studentId);
+            return null;
+        }
+
+        Avatar avatar = avatarOpt.get();
+        Path previewPath = thumbnailService.findThumbnail(Path.of(avatar.getFilePath()), size);
+        if (previewPath != null) {
+            return new AvatarPreview(Files.readAllBytes(previewPath), PREVIEW_MEDIA_TYPE);
+        }
+        logger.debug("No preview for student id={}, serving original file", studentId);
+        return new AvatarPreview(Files.readAllBytes(Path.of(avatar.getFilePath())), avatar.getMediaType());
+    }
+
     @Override
     public void uploadAvatar(Long studentId, MultipartFile file) throws IOException {
         logger.info("Was invoked method for upload avatar for student with id={}", studentId);
@@ -59,14 +117,10 @@ public class AvatarServiceImpl implements AvatarService {
             logger.error("File is empty for student id={}", studentId);
             throw new IllegalArgumentException("Файл не выбран");
         }
-        if (file.getSize() > 1024 * 300) {
-            logger.warn("File size exceeds limit (300KB) for student id={}, size={} bytes", studentId, file.getSize());
+        if (file.getSize() > maxSize.toBytes()) {
+            logger.warn("File size exceeds limit ({}) for student id={}, size={} bytes", maxSize, studentId, file.getSize());
             throw new IllegalArgumentException("Файл слишком большой");
         }
-        if (file.getContentType() == null) {
-            logger.error("Content type is null for file of student id={}", studentId);
-            throw new IllegalArgumentException("Тип файла не указан");
-        }
 
         Optional<Student> studentOpt = studentRepository.findById(studentId);
         if (studentOpt.isEmpty()) {
@@ -76,45 +130,128 @@ public class AvatarServiceImpl implements AvatarService {
         Student student = studentOpt.get();
         logger.debug("Found student: id={}, name={}", student.getId(), student.getName());
 
-        String extension = getExtension(file.getOriginalFilename());
-        Path filePath = Path.of(avatarsDir, studentId + "." + extension);
+        Path tempFile = avatarStore.createTempFile(studentId + "-");
+        try {
+            StoredFile stored = storeToTempFile(file, tempFile);
+            if (stored.mediaType() == null) {
+                logger.warn("Unsupported image format uploaded for student id={}", studentId);
+                throw new IllegalArgumentException("Неподдерживаемый формат файла");
+            }
 
-        if (!Files.exists(filePath.getParent())) {
-            Files.createDirectories(filePath.getParent());
-            logger.debug("Created directory for avatars: {}", filePath.getParent());
-        }
+            String contentHash = stored.contentHash();
+            Path filePath = avatarStore.store(tempFile, contentHash, stored.extension(),
+                    () -> referenceCounts.execute(status -> avatarRepository.countByContentHash(contentHash)));
+
+            Avatar avatar = avatarRepository.findByStudentId(studentId).orElseGet(Avatar::new);
+            String oldFilePath = avatar.getFilePath();
+            String oldContentHash = avatar.getContentHash();
 
-        Optional<Avatar> existingAvatar = avatarRepository.findByStudentId(studentId);
-        if (existingAvatar.isPresent()) {
-            Files.deleteIfExists(Path.of(existingAvatar.get().getFilePath()));
-            logger.debug("Deleted old avatar file for student id={}", studentId);
+            avatar.setStudent(student);
+            avatar.setFilePath(filePath.toAbsolutePath().toString().replace("\\", "/"));
+            avatar.setFileSize(stored.size());
+            avatar.setMediaType(stored.mediaType());
+            avatar.setContentHash(stored.contentHash());
+            avatarRepository.save(avatar);
+            avatarLoads.forget(studentId);
+
+            if (oldFilePath != null && !oldFilePath.equals(avatar.getFilePath())) {
+                long references = oldContentHash == null ? 0 : avatarRepository.countByContentHash(oldContentHash);
+                avatarStore.release(oldContentHash, Path.of(oldFilePath), references);
+                logger.debug("Released old avatar file for student id={}, remaining references={}", studentId, references);
+            }
+            logger.info("Avatar successfully uploaded for student id={}", studentId);
+        } finally {
+            Files.deleteIfExists(tempFile);
         }
+    }
+
+    /**
+     * Copies the upload to {@code target} in one pass, counting bytes, hashing the content
+     * and keeping the first bytes to detect the image format from its signature.
+     */
+    private StoredFile storeToTempFile(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest = newSha256();
+        ByteBuffer buffer = ByteBuffer.allocate(COPY_BUFFER_SIZE);
+        byte[] header = new byte[SIGNATURE_LENGTH];
+        int headerLength = 0;
+        long size = 0;
+
+        try (ReadableByteChannel in = Channels.newChannel(file.getInputStream());
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (in.read(buffer) != -1) {
+                buffer.flip();
+                size += buffer.remaining();
+                if (size > maxSize.toBytes()) {
+                    throw new IllegalArgumentException("Файл слишком большой");
+                }
+                int headerBytes = Math.min(buffer.remaining(), header.length - headerLength);
+                buffer.get(buffer.position(), header, headerLength, headerBytes);
+                headerLength += headerBytes;
 
-        try (InputStream is = file.getInputStream();
-             OutputStream os = Files.newOutputStream(filePath, CREATE_NEW)) {
-            is.transferTo(os);
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
         }
 
-        Avatar avatar = existingAvatar.orElseGet(Avatar::new);
-        avatar.setStudent(student);
-        avatar.setFilePath(filePath.toAbsolutePath().toString().replace("\\", "/"));
-        avatar.setFileSize(file.getSize());
-        avatar.setMediaType(file.getContentType());
-        avatar.setData(file.getBytes());
+        ImageFormat format = ImageFormat.detect(header, headerLength);
+        return new StoredFile(size, HexFormat.of().formatHex(digest.digest()),
+                format == null ? null : format.mediaType, format == null ? null : format.extension);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        avatarRepository.save(avatar);
-        logger.info("Avatar successfully uploaded for student id={}", studentId);
+    private record StoredFile(long size, String contentHash, String mediaType, String extension) {
     }
 
+    private enum ImageFormat {
+        PNG("image/png", "png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'}),
+        JPEG("image/jpeg", "jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+        GIF("image/gif", "gif", new byte[]{'G', 'I', 'F', '8'}),
+        BMP("image/bmp", "bmp", new byte[]{'B', 'M'}),
+        WEBP("image/webp", "webp", new byte[]{'R', 'I', 'F', 'F'});
+
+        private final String mediaType;
+        private final String extension;
+        private final byte[] signature;
+
+        ImageFormat(String mediaType, String extension, byte[] signature) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+            this.signature = signature;
+        }
 
-    private String getExtension(String fileName) {
-        return fileName.substring(fileName.lastIndexOf(".") + 1);
+        static ImageFormat detect(byte[] header, int length) {
+            for (ImageFormat format : values()) {
+                if (format.matches(header, length)) {
+                    return format;
+                }
+            }
+            return null;
+        }
+
+        private boolean matches(byte[] header, int length) {
+            if (length < signature.length
+                    || !Arrays.equals(header, 0, signature.length, signature, 0, signature.length)) {
+                return false;
+            }
+            // RIFF is a container: WebP has "WEBP" at offset 8
+            return this != WEBP || length >= 12 && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P';
+        }
     }
 
     @Override
-    public Page<Avatar> getAllAvatars(Pageable pageable) {
+    public Page<AvatarInfo> getAllAvatars(Pageable pageable) {
         logger.info("Was invoked method to get all avatars with pageable={}", pageable);
-        Page<Avatar> avatars = avatarRepository.findAll(pageable);
+        Page<AvatarInfo> avatars = avatarRepository.findAllInfo(pageable);
         logger.debug("Retrieved {} avatars for page {}", avatars.getTotalElements(), pageable.getPageNumber());
         return avatars;
     }
@@ -0,0 +1,13 @@
+package ru.hogwarts.school.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface AvatarThumbnailService {
+
+    void generateThumbnailsAsync(Path source);
+
+    Path findThumbnail(Path source, int size);
+
+    void deleteThumbnails(Path source) throws IOException;
+}
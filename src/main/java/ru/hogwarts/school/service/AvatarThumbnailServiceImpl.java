@@ -0,0 +1,159 @@
+package ru.hogwarts.school.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+public class AvatarThumbnailServiceImpl implements AvatarThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvatarThumbnailServiceImpl.class);
+
+    private static final String THUMBNAIL_FORMAT = "png";
+
+    private final int[] sizes;
+    private final long maxPixels;
+    private final ThreadPoolExecutor executor;
+
+    public AvatarThumbnailServiceImpl(@Value("${avatars.thumbnails.sizes:64,128,256}") int[] sizes,
+                                      @Value("${avatars.thumbnails.pool-size:2}") int poolSize,
+                                      @Value("${avatars.thumbnails.queue-capacity:100}") int queueCapacity,
+                                      @Value("${avatars.thumbnails.max-pixels:40000000}") long maxPixels) {
+        this.sizes = Arrays.stream(sizes).sorted().toArray();
+        this.maxPixels = maxPixels;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "avatar-thumbnail-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void generateThumbnailsAsync(Path source) {
+        try {
+            executor.execute(() -> generateThumbnails(source));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Thumbnail queue is full, skipping thumbnails for {}", source);
+        }
+    }
+
+    @Override
+    public Path findThumbnail(Path source, int size) {
+        for (int thumbnailSize : sizes) {
+            if (thumbnailSize >= size) {
+                Path thumbnail = getThumbnailPath(source, thumbnailSize);
+                return Files.exists(thumbnail) ? thumbnail : null;
+            }
+        }
+        Path largest = getThumbnailPath(source, sizes[sizes.length - 1]);
+        return Files.exists(largest) ? largest : null;
+    }
+
+    @Override
+    public void deleteThumbnails(Path source) throws IOException {
+        for (int size : sizes) {
+            Files.deleteIfExists(getThumbnailPath(source, size));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void generateThumbnails(Path source) {
+        try {
+            BufferedImage image = readImage(source);
+            if (image == null) {
+                return;
+            }
+            for (int size : sizes) {
+                writeThumbnail(image, size, getThumbnailPath(source, size));
+            }
+            logger.debug("Generated thumbnails {} for {}", sizes, source);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Cannot generate thumbnails for {}", source, e);
+        }
+    }
+
+    /**
+     * Decodes the image only after checking the dimensions from its header, and subsamples
+     * rows and columns so the raster is not much larger than the biggest thumbnail.
+     */
+    private BufferedImage readImage(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input == null ? null : ImageIO.getImageReaders(input);
+            if (readers == null || !readers.hasNext()) {
+                logger.warn("Cannot generate thumbnails for {}: unsupported image format", source);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    logger.warn("Cannot generate thumbnails for {}: {}x{} exceeds {} pixels",
+                            source, width, height, maxPixels);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * sizes[sizes.length - 1]));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void writeThumbnail(BufferedImage image, int size, Path target) throws IOException {
+        double scale = Math.min(1.0, (double) size / Math.max(image.getWidth(), image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        ImageIO.write(thumbnail, THUMBNAIL_FORMAT, tempFile.toFile());
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path getThumbnailPath(Path source, int size) {
+        String fileName = source.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        return source.resolveSibling(baseName + "-" + size + "." + THUMBNAIL_FORMAT);
+    }
+}
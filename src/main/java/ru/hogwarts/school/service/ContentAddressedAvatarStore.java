@@ -0,0 +1,181 @@
+package ru.hogwarts.school.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Stores avatar files as {@code <dir>/<hash[0:2]>/<hash>.<ext>} so identical images are kept once.
+ * The {@code avatar} rows sharing a {@code content_hash} are the references to a file; a file is
+ * deleted after the transaction that dropped its last reference commits, or after an upload of it
+ * rolls back without any committed row pointing at it, unless an upload of the same content started
+ * in the meantime.
+ */
+@Component
+public class ContentAddressedAvatarStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContentAddressedAvatarStore.class);
+
+    private final Path root;
+    private final AvatarThumbnailService thumbnailService;
+
+    // guarded by this
+    private final Map<String, Integer> uploadsInFlight = new HashMap<>();
+    private final Map<String, Long> uploadGenerations = new HashMap<>();
+
+    public ContentAddressedAvatarStore(@Value("${avatars.dir.path}") String avatarsDir,
+                                       AvatarThumbnailService thumbnailService) {
+        this.root = Path.of(avatarsDir);
+        this.thumbnailService = thumbnailService;
+    }
+
+    public Path createTempFile(String prefix) throws IOException {
+        Files.createDirectories(root);
+        return Files.createTempFile(root, prefix, ".upload");
+    }
+
+    public Path resolve(String hash, String extension) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + "." + extension);
+    }
+
+    /**
+     * Moves {@code tempFile} to the path for {@code hash}, or drops it when that content is already stored.
+     *
+     * @param committedReferences counts committed avatars pointing at {@code hash}; called outside the
+     *                            current transaction if it rolls back
+     */
+    public Path store(Path tempFile, String hash, String extension, LongSupplier committedReferences)
+            throws IOException {
+        Path target = resolve(hash, extension);
+        boolean created;
+        synchronized (this) {
+            uploadsInFlight.merge(hash, 1, Integer::sum);
+            uploadGenerations.merge(hash, 1L, Long::sum);
+            try {
+                created = Files.notExists(target);
+                if (created) {
+                    Files.createDirectories(target.getParent());
+                    Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+                }
+            } catch (IOException | RuntimeException e) {
+                finishUpload(hash);
+                throw e;
+            }
+        }
+        afterCompletion(committed -> {
+            finishUpload(hash);
+            if (!committed) {
+                releaseAfterRollback(hash, target, committedReferences);
+            }
+        });
+
+        if (created) {
+            thumbnailService.generateThumbnailsAsync(target);
+            logger.debug("Stored new avatar content {}", target);
+        } else {
+            Files.deleteIfExists(tempFile);
+            logger.debug("Avatar content {} already stored, reusing it", target);
+        }
+        return target;
+    }
+
+    /**
+     * Deletes {@code path} once the current transaction commits if no avatar references it any more.
+     *
+     * @param references avatars still pointing at {@code hash}, counted inside the current transaction
+     */
+    public void release(String hash, Path path, long references) {
+        if (hash == null) {
+            afterCommit(() -> delete(path));
+            return;
+        }
+        long generation;
+        synchronized (this) {
+            if (references > 0 || uploadsInFlight.containsKey(hash)) {
+                return;
+            }
+            generation = uploadGenerations.getOrDefault(hash, 0L);
+        }
+        afterCommit(() -> deleteIfUntouched(hash, path, generation));
+    }
+
+    private void releaseAfterRollback(String hash, Path path, LongSupplier committedReferences) {
+        long generation;
+        synchronized (this) {
+            if (uploadsInFlight.containsKey(hash)) {
+                return;
+            }
+            generation = uploadGenerations.getOrDefault(hash, 0L);
+        }
+        long references;
+        try {
+            references = committedReferences.getAsLong();
+        } catch (RuntimeException e) {
+            logger.warn("Cannot count references to avatar content {}, keeping {}", hash, path, e);
+            return;
+        }
+        if (references == 0) {
+            deleteIfUntouched(hash, path, generation);
+        }
+    }
+
+    private synchronized void deleteIfUntouched(String hash, Path path, long generation) {
+        if (uploadsInFlight.containsKey(hash) || uploadGenerations.getOrDefault(hash, 0L) != generation) {
+            return;
+        }
+        uploadGenerations.remove(hash);
+        delete(path);
+    }
+
+    private synchronized void finishUpload(String hash) {
+        uploadsInFlight.computeIfPresent(hash, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private void delete(Path path) {
+        try {
+            thumbnailService.deleteThumbnails(path);
+            Files.deleteIfExists(path);
+            logger.debug("Deleted unreferenced avatar file {}", path);
+        } catch (IOException e) {
+            logger.warn("Cannot delete avatar file {}", path, e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+}
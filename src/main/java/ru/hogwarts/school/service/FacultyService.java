@@ -1,8 +1,12 @@
 package ru.hogwarts.school.service;
 
 import org.springframework.http.ResponseEntity;
+import ru.hogwarts.school.dto.FacultyBatchItem;
+import ru.hogwarts.school.dto.FacultyStats;
 import ru.hogwarts.school.model.Faculty;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface FacultyService {
 
@@ -10,15 +14,37 @@ public interface FacultyService {
 
     ResponseEntity<Faculty> findFaculty(long id);
 
+    ResponseEntity<Faculty> findFacultyWithStudents(long id);
+
     Faculty editFaculty(Faculty faculty);
 
+    /**
+     * Updates the faculty only if its current version is one of {@code expectedVersions} ({@code null} skips the check).
+     *
+     * @return the updated faculty, or {@code null} if there is no faculty with this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the version does not match
+     */
+    Faculty editFaculty(Faculty faculty, Collection<Long> expectedVersions);
+
     ResponseEntity<Void> deleteFaculty(long id);
 
     Collection<Faculty> findByColorIgnoreCase(String color);
 
     Collection<Faculty> findByNameIgnoreCase(String name);
 
+    Collection<Faculty> findByNamePrefix(String prefix, int limit);
+
+    Collection<Faculty> findByNameSimilarTo(String query, int limit);
+
     Collection<Faculty> getAllFaculties();
 
+    Collection<Faculty> getFacultiesAfter(long afterId, int limit);
+
+    List<FacultyBatchItem> getFacultiesByIds(List<Long> ids);
+
+    void forEachFaculty(Consumer<Faculty> action);
+
+    Collection<FacultyStats> getFacultyStats();
+
     String getLongestFacultyName();
 }
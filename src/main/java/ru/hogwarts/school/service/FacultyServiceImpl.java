@@ -1,13 +1,28 @@
 package ru.hogwarts.school.service;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.hogwarts.school.dto.FacultyBatchItem;
+import ru.hogwarts.school.dto.FacultyStats;
 import ru.hogwarts.school.model.Faculty;
 import ru.hogwarts.school.repository.FacultyRepository;
+import ru.hogwarts.school.repository.LikePatterns;
 import ru.hogwarts.school.repository.StudentRepository;
 
 @Service
@@ -16,24 +31,54 @@ public class FacultyServiceImpl implements FacultyService {
     private static final Logger logger = LoggerFactory.getLogger(FacultyServiceImpl.class);
 
     private final FacultyRepository facultyRepository;
+    private final EntityManager entityManager;
+    private final FacultyStatistics facultyStatistics;
+    // the fetch join is not served by the second-level cache, so concurrent misses are coalesced here
+    private final SingleFlight<Long, Optional<Faculty>> facultyWithStudentsLoads;
 
-    public FacultyServiceImpl(FacultyRepository facultyRepository) {
+    public FacultyServiceImpl(FacultyRepository facultyRepository, EntityManager entityManager,
+                              FacultyStatistics facultyStatistics, MeterRegistry meterRegistry) {
         this.facultyRepository = facultyRepository;
+        this.entityManager = entityManager;
+        this.facultyStatistics = facultyStatistics;
+        this.facultyWithStudentsLoads = new SingleFlight<>("faculty-with-students", meterRegistry);
     }
 
     @Override
     public Faculty addFaculty(Faculty faculty) {
         logger.info("Was invoked method to add new faculty: name={}, color={}", faculty.getName(), faculty.getColor());
+        faculty.setId(0);
         Faculty saved = facultyRepository.save(faculty);
+        facultyStatistics.facultySaved(saved);
         logger.debug("Faculty saved with id={}", saved.getId());
         return saved;
     }
 
     @Override
     public Faculty editFaculty(Faculty faculty) {
+        return editFaculty(faculty, null);
+    }
+
+    @Override
+    public Faculty editFaculty(Faculty faculty, Collection<Long> expectedVersions) {
         logger.info("Was invoked method to edit faculty with id={}, new name={}, color={}",
                 faculty.getId(), faculty.getName(), faculty.getColor());
+        Optional<Faculty> current = facultyRepository.findById(faculty.getId());
+        if (current.isEmpty()) {
+            logger.warn("Faculty to edit not found with id={}", faculty.getId());
+            return null;
+        }
+        Long currentVersion = current.get().getVersion();
+        if (expectedVersions != null && !expectedVersions.contains(currentVersion)) {
+            logger.warn("Faculty id={} was modified: expected versions={}, current={}",
+                    faculty.getId(), expectedVersions, currentVersion);
+            throw new OptimisticLockingFailureException(
+                    "Факультет " + faculty.getId() + " изменён, текущая версия " + currentVersion);
+        }
+        faculty.setVersion(currentVersion);
         Faculty updated = facultyRepository.save(faculty);
+        facultyStatistics.facultySaved(updated);
+        facultyWithStudentsLoads.forget(updated.getId());
         logger.debug("Faculty updated successfully: id={}", updated.getId());
         return updated;
     }
@@ -57,6 +102,26 @@ public class FacultyServiceImpl implements FacultyService {
         }
     }
 
+    @Override
+    public ResponseEntity<Faculty> findFacultyWithStudents(long id) {
+        logger.info("Was invoked method to find faculty with students by id={}", id);
+        if (id <= 0) {
+            logger.error("Invalid faculty id: {}", id);
+            return ResponseEntity.badRequest().build();
+        }
+
+        Optional<Faculty> facultyOptional = facultyWithStudentsLoads.execute(id,
+                () -> facultyRepository.findWithStudentsById(id));
+
+        if (facultyOptional.isPresent()) {
+            logger.debug("Faculty found: id={}, students={}", id, facultyOptional.get().getStudents().size());
+            return ResponseEntity.ok(facultyOptional.get());
+        } else {
+            logger.warn("Faculty not found with id={}", id);
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @Override
     public ResponseEntity<Void> deleteFaculty(long id) {
         logger.info("Was invoked method to delete faculty with id={}", id);
@@ -72,6 +137,8 @@ public class FacultyServiceImpl implements FacultyService {
         }
 
         facultyRepository.deleteById(id);
+        facultyStatistics.facultyDeleted(id);
+        facultyWithStudentsLoads.forget(id);
         logger.info("Faculty with id={} deleted successfully", id);
         return ResponseEntity.noContent().build();
     }
@@ -116,6 +183,18 @@ public class FacultyServiceImpl implements FacultyService {
         return faculties;
     }
 
+    @Override
+    public Collection<Faculty> findByNamePrefix(String prefix, int limit) {
+        logger.info("Was invoked method findByNamePrefix with prefix='{}', limit={}", prefix, limit);
+        return facultyRepository.searchByNamePattern(LikePatterns.startingWith(prefix), limit);
+    }
+
+    @Override
+    public Collection<Faculty> findByNameSimilarTo(String query, int limit) {
+        logger.info("Was invoked method findByNameSimilarTo with query='{}', limit={}", query, limit);
+        return facultyRepository.searchByNameSimilarity(query, limit);
+    }
+
     @Override
     public Collection<Faculty> getAllFaculties() {
         logger.info("Was invoked method getAllFaculties");
@@ -131,6 +210,46 @@ public class FacultyServiceImpl implements FacultyService {
         return allFaculties;
     }
 
+    @Override
+    public Collection<Faculty> getFacultiesAfter(long afterId, int limit) {
+        logger.info("Was invoked method getFacultiesAfter with after={}, limit={}", afterId, limit);
+        return facultyRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<FacultyBatchItem> getFacultiesByIds(List<Long> ids) {
+        logger.info("Was invoked method getFacultiesByIds for {} ids", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Faculty> found = facultyRepository.findAllById(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(Faculty::getId, Function.identity()));
+        logger.debug("Found {} faculties for {} requested ids", found.size(), ids.size());
+        return ids.stream()
+                .map(id -> FacultyBatchItem.of(id, found.get(id)))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachFaculty(Consumer<Faculty> action) {
+        logger.info("Was invoked method forEachFaculty");
+        // a full export must not push every row into the second-level cache and evict the hot entries
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        try (Stream<Faculty> faculties = facultyRepository.streamAll()) {
+            faculties.forEach(faculty -> {
+                action.accept(faculty);
+                entityManager.detach(faculty);
+            });
+        }
+    }
+
+    @Override
+    public Collection<FacultyStats> getFacultyStats() {
+        logger.info("Was invoked method getFacultyStats");
+        return facultyStatistics.snapshot();
+    }
+
     @Override
     public String getLongestFacultyName() {
         List<Faculty> allFaculties = facultyRepository.findAll();
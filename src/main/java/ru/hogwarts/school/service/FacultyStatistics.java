@@ -0,0 +1,202 @@
+package ru.hogwarts.school.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.hogwarts.school.dto.FacultyMember;
+import ru.hogwarts.school.dto.FacultyStats;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.repository.FacultyRepository;
+import ru.hogwarts.school.repository.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Per-faculty student statistics kept in memory so {@code GET /faculty/stats} costs O(faculties).
+ * Loaded once on startup, then updated by the student and faculty services after each change commits.
+ * Writes that bypass the services are not seen until {@link #rebuild()} runs again.
+ */
+@Component
+public class FacultyStatistics implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacultyStatistics.class);
+
+    private final FacultyRepository facultyRepository;
+    private final StudentRepository studentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // guarded by this
+    private Map<Long, Accumulator> faculties = new HashMap<>();
+
+    public FacultyStatistics(FacultyRepository facultyRepository, StudentRepository studentRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.facultyRepository = facultyRepository;
+        this.studentRepository = studentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        Map<Long, Accumulator> rebuilt = transactionTemplate.execute(status -> {
+            Map<Long, Accumulator> result = new HashMap<>();
+            for (Faculty faculty : facultyRepository.findAll()) {
+                result.put(faculty.getId(), new Accumulator(faculty.getName()));
+            }
+            try (Stream<FacultyMember> members = studentRepository.streamFacultyMembers()) {
+                members.forEach(member -> result.computeIfAbsent(member.getFacultyId(), id -> new Accumulator(null))
+                        .add(member.getAge(), member.getName()));
+            }
+            return result;
+        });
+        synchronized (this) {
+            faculties = rebuilt;
+        }
+        logger.info("Faculty statistics rebuilt for {} faculties in {} ms", rebuilt.size(),
+                (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    public synchronized List<FacultyStats> snapshot() {
+        List<FacultyStats> stats = new ArrayList<>(faculties.size());
+        faculties.forEach((id, accumulator) -> stats.add(accumulator.toStats(id)));
+        stats.sort(Comparator.comparingLong(FacultyStats::facultyId));
+        return stats;
+    }
+
+    public void facultySaved(Faculty faculty) {
+        long id = faculty.getId();
+        String name = faculty.getName();
+        afterCommit(() -> {
+            synchronized (this) {
+                faculties.computeIfAbsent(id, key -> new Accumulator(name)).facultyName = name;
+            }
+        });
+    }
+
+    public void facultyDeleted(long id) {
+        afterCommit(() -> {
+            synchronized (this) {
+                faculties.remove(id);
+            }
+        });
+    }
+
+    /**
+     * Records a change of one student; {@code before} or {@code after} is {@code null} when the student
+     * was created or deleted. Both must be read before the entities can change again.
+     */
+    public void studentChanged(Student before, Student after) {
+        Member removed = Member.of(before);
+        Member added = Member.of(after);
+        afterCommit(() -> {
+            synchronized (this) {
+                if (removed != null) {
+                    Accumulator accumulator = faculties.get(removed.facultyId());
+                    if (accumulator != null) {
+                        accumulator.remove(removed.age(), removed.name());
+                    }
+                }
+                if (added != null) {
+                    faculties.computeIfAbsent(added.facultyId(), id -> new Accumulator(null))
+                            .add(added.age(), added.name());
+                }
+            }
+        });
+    }
+
+    public void studentAdded(Long facultyId, int age, String name) {
+        if (facultyId == null) {
+            return;
+        }
+        afterCommit(() -> {
+            synchronized (this) {
+                faculties.computeIfAbsent(facultyId, id -> new Accumulator(null)).add(age, name);
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record Member(long facultyId, int age, String name) {
+
+        static Member of(Student student) {
+            if (student == null || student.getFaculty() == null) {
+                return null;
+            }
+            return new Member(student.getFaculty().getId(), student.getAge(), student.getName());
+        }
+    }
+
+    private static class Accumulator {
+
+        private static final Comparator<String> BY_LENGTH =
+                Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+        private String facultyName;
+        private long count;
+        private long ageSum;
+        private final TreeMap<Integer, Integer> ages = new TreeMap<>();
+        private final TreeMap<String, Integer> names = new TreeMap<>(BY_LENGTH);
+
+        Accumulator(String facultyName) {
+            this.facultyName = facultyName;
+        }
+
+        void add(int age, String name) {
+            count++;
+            ageSum += age;
+            ages.merge(age, 1, Integer::sum);
+            if (name != null) {
+                names.merge(name, 1, Integer::sum);
+            }
+        }
+
+        void remove(int age, String name) {
+            if (!ages.containsKey(age)) {
+                return;
+            }
+            ages.computeIfPresent(age, (key, n) -> n == 1 ? null : n - 1);
+            count--;
+            ageSum -= age;
+            if (name != null) {
+                names.computeIfPresent(name, (key, n) -> n == 1 ? null : n - 1);
+            }
+        }
+
+        FacultyStats toStats(long facultyId) {
+            return new FacultyStats(facultyId, facultyName, count,
+                    count == 0 ? 0.0 : (double) ageSum / count,
+                    ages.isEmpty() ? null : ages.firstKey(),
+                    ages.isEmpty() ? null : ages.lastKey(),
+                    names.isEmpty() ? null : names.lastKey());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package ru.hogwarts.school.service;
+
+import ru.hogwarts.school.dto.SumResult;
+import ru.hogwarts.school.dto.SumStrategy;
+
+public interface MathService {
+
+    SumResult sum(long n, SumStrategy strategy, Integer parallelism);
+}
@@ -0,0 +1,128 @@
+package ru.hogwarts.school.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.hogwarts.school.dto.SumResult;
+import ru.hogwarts.school.dto.SumStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.LongStream;
+
+@Service
+public class MathServiceImpl implements MathService {
+
+    public static final long MAX_N = 1_000_000_000L;
+    public static final int MAX_PARALLELISM = 256;
+
+    private static final long FORK_JOIN_THRESHOLD = 10_000L;
+
+    private final ForkJoinPool pool;
+    // one pool per requested level, never more workers than the shared pool has
+    private final Map<Integer, ForkJoinPool> poolsByParallelism = new ConcurrentHashMap<>();
+
+    public MathServiceImpl(@Value("${math.pool.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.poolsByParallelism.put(pool.getParallelism(), pool);
+    }
+
+    @Override
+    public SumResult sum(long n, SumStrategy strategy, Integer parallelism) {
+        if (n < 1 || n > MAX_N) {
+            throw new IllegalArgumentException("n должно быть от 1 до " + MAX_N);
+        }
+        if (parallelism != null && (parallelism < 1 || parallelism > MAX_PARALLELISM)) {
+            throw new IllegalArgumentException("parallelism должно быть от 1 до " + MAX_PARALLELISM);
+        }
+
+        ForkJoinPool executionPool = parallelism == null
+                ? pool
+                : poolsByParallelism.computeIfAbsent(Math.min(parallelism, pool.getParallelism()), ForkJoinPool::new);
+        long start = System.nanoTime();
+        long result = switch (strategy) {
+            case SEQUENTIAL -> LongStream.rangeClosed(1, n).sum();
+            case PARALLEL_STREAM -> executionPool.submit(() -> LongStream.rangeClosed(1, n).parallel().sum()).join();
+            case FORK_JOIN -> executionPool.invoke(new SumTask(1, n));
+            case CLOSED_FORM -> n * (n + 1) / 2;
+            case VIRTUAL_THREADS -> sumOnVirtualThreads(n, executionPool.getParallelism());
+        };
+        long elapsedNanos = System.nanoTime() - start;
+        int usedParallelism = strategy == SumStrategy.SEQUENTIAL || strategy == SumStrategy.CLOSED_FORM
+                ? 1 : executionPool.getParallelism();
+        return new SumResult(strategy, n, result, usedParallelism, elapsedNanos);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poolsByParallelism.values().forEach(ForkJoinPool::shutdown);
+    }
+
+    private long sumOnVirtualThreads(long n, int chunks) {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<Long>> parts = new ArrayList<>(chunks);
+            long chunkSize = (n + chunks - 1) / chunks;
+            for (long from = 1; from <= n; from += chunkSize) {
+                long chunkFrom = from;
+                long chunkTo = Math.min(n, from + chunkSize - 1);
+                parts.add(executor.submit(() -> LongStream.rangeClosed(chunkFrom, chunkTo).sum()));
+            }
+            long sum = 0;
+            for (Future<Long> part : parts) {
+                sum += part.get();
+            }
+            return sum;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Вычисление прервано", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Ошибка вычисления", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Виртуальные потоки требуют Java 21+");
+        }
+    }
+
+    private static class SumTask extends RecursiveTask<Long> {
+
+        private final long from;
+        private final long to;
+
+        SumTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from < FORK_JOIN_THRESHOLD) {
+                long sum = 0;
+                for (long i = from; i <= to; i++) {
+                    sum += i;
+                }
+                return sum;
+            }
+            long middle = (from + to) >>> 1;
+            SumTask left = new SumTask(from, middle);
+            left.fork();
+            long right = new SumTask(middle + 1, to).compute();
+            return right + left.join();
+        }
+    }
+}
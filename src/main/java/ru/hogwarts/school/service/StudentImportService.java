@@ -0,0 +1,13 @@
+package ru.hogwarts.school.service;
+
+import ru.hogwarts.school.dto.StudentImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface StudentImportService {
+
+    StudentImportResult importJson(InputStream body) throws IOException;
+
+    StudentImportResult importCsv(InputStream body) throws IOException;
+}
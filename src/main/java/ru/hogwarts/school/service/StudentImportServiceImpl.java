@@ -0,0 +1,254 @@
+package ru.hogwarts.school.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.hogwarts.school.dto.StudentImportError;
+import ru.hogwarts.school.dto.StudentImportResult;
+import ru.hogwarts.school.dto.StudentImportRow;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportServiceImpl.class);
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final List<String> CSV_HEADER = List.of("name", "age", "facultyid");
+
+    private static final ObjectReader CSV_ROWS = new CsvMapper()
+            .readerFor(String[].class)
+            .with(CsvParser.Feature.WRAP_AS_ARRAY)
+            .with(CsvParser.Feature.SKIP_EMPTY_LINES)
+            .with(CsvParser.Feature.TRIM_SPACES);
+
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final FacultyStatistics facultyStatistics;
+    private final int batchSize;
+
+    public StudentImportServiceImpl(ObjectMapper objectMapper, EntityManager entityManager,
+                                    PlatformTransactionManager transactionManager,
+                                    FacultyStatistics facultyStatistics,
+                                    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.facultyStatistics = facultyStatistics;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public StudentImportResult importJson(InputStream body) throws IOException {
+        logger.info("Was invoked method to import students from JSON");
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (JsonProcessingException e) {
+                first = null;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Ожидается JSON-массив студентов");
+            }
+
+            Import studentImport = new Import();
+            int row = 0;
+            try {
+                while (true) {
+                    row++;
+                    JsonToken token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY) {
+                        break;
+                    }
+                    if (token == null) {
+                        throw new JsonParseException(parser, "массив не закрыт");
+                    }
+                    JsonNode element = objectMapper.readTree(parser);
+                    try {
+                        studentImport.add(row, objectMapper.treeToValue(element, StudentImportRow.class));
+                    } catch (JsonProcessingException e) {
+                        studentImport.fail(row, "Некорректная запись: " + e.getOriginalMessage());
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                studentImport.fail(row, "Некорректный JSON, импорт остановлен: " + e.getOriginalMessage());
+            }
+            return studentImport.finish();
+        }
+    }
+
+    @Override
+    public StudentImportResult importCsv(InputStream body) throws IOException {
+        logger.info("Was invoked method to import students from CSV");
+        Import studentImport = new Import();
+        int row = 0;
+        try (MappingIterator<String[]> lines =
+                     CSV_ROWS.readValues(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            boolean first = true;
+            while (lines.hasNextValue()) {
+                String[] columns = lines.nextValue();
+                if (first && isCsvHeader(columns)) {
+                    first = false;
+                    continue;
+                }
+                first = false;
+                row++;
+                try {
+                    studentImport.add(row, parseCsvColumns(columns));
+                } catch (IllegalArgumentException e) {
+                    studentImport.fail(row, e.getMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            studentImport.fail(row + 1, "Некорректный CSV, импорт остановлен: " + e.getOriginalMessage());
+        }
+        return studentImport.finish();
+    }
+
+    private boolean isCsvHeader(String[] columns) {
+        List<String> names = Arrays.stream(columns).map(String::toLowerCase).toList();
+        return names.equals(CSV_HEADER) || names.equals(CSV_HEADER.subList(0, 2));
+    }
+
+    private StudentImportRow parseCsvColumns(String[] columns) {
+        if (columns.length < 2 || columns.length > 3) {
+            throw new IllegalArgumentException("Ожидается name,age[,facultyId]");
+        }
+        try {
+            Integer age = Integer.valueOf(columns[1]);
+            Long facultyId = columns.length == 3 && !columns[2].isBlank() ? Long.valueOf(columns[2]) : null;
+            return new StudentImportRow(columns[0], age, facultyId);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Некорректное число: " + e.getMessage());
+        }
+    }
+
+    private String validate(StudentImportRow row) {
+        if (row.name() == null || row.name().isBlank()) {
+            return "Имя студента не указано";
+        }
+        if (row.age() == null || row.age() < 0) {
+            return "Возраст студента должен быть неотрицательным";
+        }
+        return null;
+    }
+
+    private Student toStudent(StudentImportRow row) {
+        Student student = new Student();
+        student.setName(row.name());
+        student.setAge(row.age());
+        if (row.facultyId() != null) {
+            student.setFaculty(entityManager.getReference(Faculty.class, row.facultyId()));
+        }
+        return student;
+    }
+
+    private void insert(List<StudentImportRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (StudentImportRow row : rows) {
+                entityManager.persist(toStudent(row));
+                facultyStatistics.studentAdded(row.facultyId(), row.age(), row.name());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    private class Import {
+
+        private final long startedAt = System.nanoTime();
+        private final List<Integer> chunkRows = new ArrayList<>(batchSize);
+        private final List<StudentImportRow> chunk = new ArrayList<>(batchSize);
+        private final List<StudentImportError> errors = new ArrayList<>();
+        private int imported;
+        private int failed;
+
+        void add(int row, StudentImportRow student) {
+            String error = validate(student);
+            if (error != null) {
+                fail(row, error);
+                return;
+            }
+            chunkRows.add(row);
+            chunk.add(student);
+            if (chunk.size() >= batchSize) {
+                flushChunk();
+            }
+        }
+
+        void fail(int row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new StudentImportError(row, message));
+            }
+        }
+
+        StudentImportResult finish() {
+            flushChunk();
+            errors.sort(Comparator.comparingInt(StudentImportError::row));
+            long elapsedNanos = System.nanoTime() - startedAt;
+            long elapsedMillis = elapsedNanos / 1_000_000;
+            double rowsPerSecond = elapsedNanos == 0 ? 0 : imported * 1_000_000_000.0 / elapsedNanos;
+            logger.info("Imported {} students, {} rows failed, {} rows/sec", imported, failed,
+                    Math.round(rowsPerSecond));
+            return new StudentImportResult(imported, failed, errors, elapsedMillis, rowsPerSecond);
+        }
+
+        private void flushChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                insert(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                logger.warn("Batch insert of {} students failed, retrying row by row", chunk.size(), e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    try {
+                        insert(List.of(chunk.get(i)));
+                        imported++;
+                    } catch (RuntimeException rowException) {
+                        fail(chunkRows.get(i), rootMessage(rowException));
+                    }
+                }
+            }
+            chunk.clear();
+            chunkRows.clear();
+        }
+
+        private String rootMessage(Throwable e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            return cause.getMessage();
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package ru.hogwarts.school.service;
 
 import org.springframework.http.ResponseEntity;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.dto.StudentBatchItem;
+import ru.hogwarts.school.dto.StudentSummary;
 import ru.hogwarts.school.model.Student;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface StudentService {
 
@@ -14,15 +18,39 @@ public interface StudentService {
 
     Student editStudent(Student student);
 
+    /**
+     * Updates the student only if its current version is one of {@code expectedVersions} ({@code null} skips the check).
+     *
+     * @return the updated student, or {@code null} if there is no student with this id
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the version does not match
+     */
+    Student editStudent(Student student, Collection<Long> expectedVersions);
+
     ResponseEntity<Void> deleteStudent(long id);
 
     Collection<Student> findByAge(int age);
 
     Collection<Student> getAllStudents();
 
+    Collection<Student> getStudentsAfter(long afterId, int limit);
+
+    List<StudentBatchItem> getStudentsByIds(List<Long> ids);
+
+    void forEachStudent(Consumer<Student> action);
+
+    void forEachStudentSummary(Consumer<StudentSummary> action);
+
     Collection<Student> findByAgeBetween(int minAge, int maxAge);
 
     List<String> getAllNamesStartingWithA();
 
+    List<String> getNamesStartingWith(String prefix);
+
+    List<String> getNamesStartingWith(String prefix, int page, int size);
+
     double getAverageAge();
+
+    long getStudentCount();
+
+    List<AgeCount> getAgeHistogram();
 }
@@ -1,15 +1,32 @@
 package ru.hogwarts.school.service;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import ru.hogwarts.school.model.Faculty;
+import org.springframework.transaction.annotation.Transactional;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.dto.StudentBatchItem;
+import ru.hogwarts.school.dto.StudentSummary;
 import ru.hogwarts.school.model.Student;
 import ru.hogwarts.school.repository.FacultyRepository;
+import ru.hogwarts.school.repository.LikePatterns;
 import ru.hogwarts.school.repository.StudentRepository;
 
 @Service
@@ -17,25 +34,44 @@ public class StudentServiceImpl implements StudentService {
 
     private final StudentRepository studentRepository;
     private final FacultyRepository facultyRepository;
+    private final EntityManager entityManager;
+    private final FacultyStatistics facultyStatistics;
 
-    public StudentServiceImpl(StudentRepository studentRepository, FacultyRepository facultyRepository) {
+    public StudentServiceImpl(StudentRepository studentRepository, FacultyRepository facultyRepository,
+                              EntityManager entityManager, FacultyStatistics facultyStatistics) {
         this.studentRepository = studentRepository;
         this.facultyRepository = facultyRepository;
+        this.entityManager = entityManager;
+        this.facultyStatistics = facultyStatistics;
     }
 
     @Override
     public Student addStudent(Student student) {
-        Faculty faculty = student.getFaculty();
-        if (faculty != null) {
-            faculty.getStudents().add(student);
-            facultyRepository.save(faculty);
-        }
-        return studentRepository.save(student);
+        student.setId(0);
+        Student saved = studentRepository.save(student);
+        facultyStatistics.studentChanged(null, saved);
+        return saved;
     }
 
     @Override
     public Student editStudent(Student student) {
-        return studentRepository.save(student);
+        return editStudent(student, null);
+    }
+
+    @Override
+    public Student editStudent(Student student, Collection<Long> expectedVersions) {
+        Student previous = studentRepository.findById(student.getId()).orElse(null);
+        if (previous == null) {
+            return null;
+        }
+        if (expectedVersions != null && !expectedVersions.contains(previous.getVersion())) {
+            throw new OptimisticLockingFailureException(
+                    "Студент " + student.getId() + " изменён, текущая версия " + previous.getVersion());
+        }
+        student.setVersion(previous.getVersion());
+        Student updated = studentRepository.save(student);
+        facultyStatistics.studentChanged(previous, updated);
+        return updated;
     }
 
     @Override
@@ -66,6 +102,7 @@ public class StudentServiceImpl implements StudentService {
         }
 
         studentRepository.deleteById(id);
+        facultyStatistics.studentChanged(studentOptional.get(), null);
         return ResponseEntity.noContent().build();
     }
 
@@ -74,6 +111,44 @@ public class StudentServiceImpl implements StudentService {
         return studentRepository.findAll();
     }
 
+    @Override
+    public Collection<Student> getStudentsAfter(long afterId, int limit) {
+        return studentRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit));
+    }
+
+    @Override
+    public List<StudentBatchItem> getStudentsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Student> found = studentRepository.findAllWithFacultyByIdIn(new LinkedHashSet<>(ids)).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        return ids.stream()
+                .map(id -> StudentBatchItem.of(id, found.get(id)))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachStudent(Consumer<Student> action) {
+        // a full export must not push every row into the second-level cache and evict the hot entries
+        entityManager.setProperty(SpecHints.HINT_SPEC_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        try (Stream<Student> students = studentRepository.streamAll()) {
+            students.forEach(student -> {
+                action.accept(student);
+                entityManager.detach(student);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void forEachStudentSummary(Consumer<StudentSummary> action) {
+        try (Stream<StudentSummary> summaries = studentRepository.streamSummaries()) {
+            summaries.forEach(action);
+        }
+    }
+
     @Override
     public Collection<Student> findByAge(int age) {
         return studentRepository.findByAge(age);
@@ -86,26 +161,38 @@ public class StudentServiceImpl implements StudentService {
     }
     @Override
     public List<String> getAllNamesStartingWithA() {
-        List<Student> allStudents = studentRepository.findAll();
-        return allStudents.stream()
-                .map(Student::getName)
-                .filter(name -> name != null && !name.isEmpty())
-                .filter(name -> name.toUpperCase().startsWith("A"))
-                .map(String::toUpperCase)
-                .sorted()
-                .collect(Collectors.toList());
+        return getNamesStartingWith("A");
     }
 
     @Override
-    public double getAverageAge() {
-        List<Student> allStudents = studentRepository.findAll();
-        if (allStudents.isEmpty()) {
-            return 0.0;
+    public List<String> getNamesStartingWith(String prefix) {
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
+        }
+        return studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith(prefix), Pageable.unpaged());
+    }
+
+    @Override
+    public List<String> getNamesStartingWith(String prefix, int page, int size) {
+        if (prefix == null || prefix.isEmpty()) {
+            return List.of();
         }
+        return studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith(prefix), PageRequest.of(page, size));
+    }
+
+    @Override
+    public double getAverageAge() {
+        Double averageAge = studentRepository.getAverageAge();
+        return averageAge == null ? 0.0 : averageAge;
+    }
 
-        return allStudents.stream()
-                .mapToInt(Student::getAge)
-                .average()
-                .orElse(0.0);
+    @Override
+    public long getStudentCount() {
+        return studentRepository.countAllStudents();
+    }
+
+    @Override
+    public List<AgeCount> getAgeHistogram() {
+        return studentRepository.getAgeHistogram();
     }
 }
@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:5
+-- Подсчёт ссылок на файл при загрузке и замене аватара
+CREATE INDEX avatar_content_hash_idx ON avatar (content_hash);
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:4
+-- SHA-256 содержимого файла аватара (hex), считается при загрузке
+ALTER TABLE avatar
+    ADD COLUMN content_hash VARCHAR(64);
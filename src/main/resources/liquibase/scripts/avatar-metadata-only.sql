@@ -0,0 +1,9 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:2
+-- preconditions onFail:MARK_RAN
+-- precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM information_schema.columns WHERE table_name = 'avatar' AND column_name = 'data'
+
+-- Содержимое аватаров хранится только на диске, в БД остаются метаданные
+ALTER TABLE avatar
+    DROP COLUMN data;
@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:9
+-- Версия строки для ETag и оптимистической блокировки (@Version в Student и Faculty)
+ALTER TABLE student ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE faculty ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:6
+-- Поиск без учёта регистра: upper(col) = upper(?) и upper(name) LIKE 'ПРЕФИКС%'
+CREATE INDEX faculty_upper_name_index
+    ON faculty (upper(name) text_pattern_ops);
+
+CREATE INDEX faculty_upper_color_index
+    ON faculty (upper(color));
@@ -0,0 +1,11 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:7
+-- preconditions onFail:MARK_RAN
+-- precondition-sql-check expectedResult:1 SELECT COUNT(*) FROM pg_available_extensions WHERE name = 'pg_trgm'
+
+-- Нечёткий поиск факультета по названию (name % ?)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX faculty_name_trgm_index
+    ON faculty USING gin (name gin_trgm_ops);
@@ -0,0 +1,9 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:10
+-- Побайтовая сортировка имён задаётся на колонке, а не в запросе: переносимый запрос
+-- upper(name) LIKE 'ПРЕФИКС%' ORDER BY upper(name) наследует COLLATE "C" и использует индекс
+DROP INDEX student_upper_name_prefix_index;
+ALTER TABLE student ALTER COLUMN name TYPE VARCHAR(255) COLLATE "C";
+CREATE INDEX student_upper_name_prefix_index
+    ON student ((upper(name))) INCLUDE (name);
@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:8
+-- Поиск имён студентов по префиксу: upper(name) COLLATE "C" LIKE 'ПРЕФИКС%' с сортировкой по индексу,
+-- name в INCLUDE позволяет index-only scan
+CREATE INDEX student_upper_name_prefix_index
+    ON student ((upper(name)) COLLATE "C") INCLUDE (name);
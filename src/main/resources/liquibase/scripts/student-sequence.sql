@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+
+-- changeset mprelovskaya:3
+-- Последовательность для пакетной вставки студентов (allocationSize = 50 в Student)
+CREATE SEQUENCE IF NOT EXISTS student_seq INCREMENT BY 50;
+SELECT setval('student_seq', (SELECT COALESCE(MAX(id), 0) FROM student) + 51, false);
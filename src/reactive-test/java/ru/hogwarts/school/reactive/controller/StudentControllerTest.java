@@ -0,0 +1,103 @@
+package ru.hogwarts.school.reactive.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+import ru.hogwarts.school.reactive.service.StudentService;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(StudentController.class)
+class StudentControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private StudentService studentService;
+
+    @Test
+    void testGetStudentInfo() {
+        when(studentService.findStudent(1L))
+                .thenReturn(Mono.just(ResponseEntity.ok(new Student(1L, "Harry Potter", 17, 0L, 5L))));
+
+        webTestClient.get().uri("/student/{id}", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Harry Potter")
+                .jsonPath("$.facultyId").doesNotExist()
+                .jsonPath("$.version").doesNotExist();
+    }
+
+    @Test
+    void testCreateStudent() {
+        when(studentService.addStudent(any(Student.class)))
+                .thenReturn(Mono.just(new Student(51L, "Ron Weasley", 17, 0L, null)));
+
+        webTestClient.post().uri("/student")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Ron Weasley\",\"age\":17}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(51);
+    }
+
+    @Test
+    void testEditStudent_NotFound() {
+        when(studentService.editStudent(any(Student.class))).thenReturn(Mono.empty());
+
+        webTestClient.put().uri("/student")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"id\":99,\"name\":\"Nobody\",\"age\":20}")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testStreamStudents() {
+        when(studentService.getAllStudents()).thenReturn(Flux.just(
+                new Student(1L, "Harry Potter", 17, 0L, null),
+                new Student(2L, "Hermione Granger", 18, 0L, null)));
+
+        webTestClient.get().uri("/student/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(Student.class).hasSize(2);
+    }
+
+    @Test
+    void testGetAllStudents_LimitTooLarge() {
+        webTestClient.get().uri("/student?after=0&limit=5000")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testGetStudentFaculty_NotFound() {
+        when(studentService.findStudentFaculty(3L)).thenReturn(Mono.empty());
+        when(studentService.findStudentFaculty(1L)).thenReturn(Mono.just(new Faculty(5L, "Gryffindor", "Red", 0L)));
+
+        webTestClient.get().uri("/student/{id}/faculty", 3L)
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri("/student/{id}/faculty", 1L)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Gryffindor")
+                .jsonPath("$.version").doesNotExist();
+    }
+}
@@ -0,0 +1,31 @@
+package ru.hogwarts.school.reactive;
+
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Non-blocking variant of the student/faculty API (WebFlux + R2DBC), built with {@code -Preactive}.
+ * Reads {@code reactive.properties} instead of {@code application.properties} and expects the schema
+ * to be managed by the servlet application's Liquibase changelog. The two applications can be run side
+ * by side (ports 8083 and 8081/8082) but must not share a live database: writes made here bypass the
+ * servlet application's second-level cache and {@code FacultyStatistics}, which then serve stale data.
+ * Compare them against separate copies of the database.
+ */
+@SpringBootApplication
+public class ReactiveSchoolApplication {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveSchoolApplication.class)
+				.properties("spring.config.name=reactive")
+				.run(args);
+	}
+
+	// Tomcat is on the classpath for the servlet application and would otherwise win the auto-configuration
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+}
@@ -0,0 +1,108 @@
+package ru.hogwarts.school.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+import ru.hogwarts.school.reactive.service.FacultyService;
+
+@RestController
+@RequestMapping("/faculty")
+public class FacultyController {
+
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private final FacultyService facultyService;
+
+    public FacultyController(FacultyService facultyService) {
+        this.facultyService = facultyService;
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Faculty>> getFacultyInfo(@PathVariable Long id) {
+        return facultyService.findFaculty(id);
+    }
+
+    @GetMapping
+    public ResponseEntity<Flux<Faculty>> getAllFaculties(@RequestParam(required = false) Long after,
+                                                         @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(facultyService.getAllFaculties());
+        }
+        int pageLimit = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        if (pageLimit <= 0 || pageLimit > MAX_PAGE_LIMIT || (after != null && after < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.getFacultiesAfter(after == null ? 0 : after, pageLimit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Faculty> streamFaculties() {
+        return facultyService.getAllFaculties();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Faculty>> createFaculty(@RequestBody Faculty faculty) {
+        return facultyService.addFaculty(faculty)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Faculty>> editFaculty(@RequestBody Faculty faculty) {
+        return facultyService.editFaculty(faculty)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Void>> deleteFaculty(@PathVariable Long id) {
+        return facultyService.deleteFaculty(id);
+    }
+
+    @GetMapping("/search")
+    public Flux<Faculty> findFaculties(@RequestParam(required = false) String name,
+                                       @RequestParam(required = false) String color) {
+        if (name != null && !name.isBlank()) {
+            return facultyService.findByNameIgnoreCase(name);
+        }
+        if (color != null && !color.isBlank()) {
+            return facultyService.findByColorIgnoreCase(color);
+        }
+        return facultyService.getAllFaculties();
+    }
+
+    @GetMapping("/search/prefix")
+    public ResponseEntity<Flux<Faculty>> findFacultiesByNamePrefix(@RequestParam String prefix,
+                                                                   @RequestParam(defaultValue = "20") int limit) {
+        if (prefix.isBlank() || limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.findByNamePrefix(prefix, limit));
+    }
+
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<Flux<Faculty>> findFacultiesByNameSimilarTo(@RequestParam("q") String query,
+                                                                      @RequestParam(defaultValue = "20") int limit) {
+        if (query.isBlank() || limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(facultyService.findByNameSimilarTo(query, limit));
+    }
+
+    @GetMapping("/{id}/students")
+    public Mono<ResponseEntity<Flux<Student>>> getFacultyStudents(@PathVariable Long id) {
+        return facultyService.findFacultyStudents(id);
+    }
+
+    @GetMapping("/longest-name")
+    public Mono<ResponseEntity<String>> getLongestFacultyName() {
+        return facultyService.getLongestFacultyName()
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
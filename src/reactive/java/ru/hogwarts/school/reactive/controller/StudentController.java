@@ -0,0 +1,122 @@
+package ru.hogwarts.school.reactive.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+import ru.hogwarts.school.reactive.service.StudentService;
+
+@RestController
+@RequestMapping("/student")
+public class StudentController {
+
+    private static final int DEFAULT_PAGE_LIMIT = 100;
+    private static final int MAX_PAGE_LIMIT = 1000;
+
+    private final StudentService studentService;
+
+    public StudentController(StudentService studentService) {
+        this.studentService = studentService;
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Student>> getStudentInfo(@PathVariable Long id) {
+        return studentService.findStudent(id);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Student>> createStudent(@RequestBody Student student) {
+        return studentService.addStudent(student)
+                .map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping
+    public Mono<ResponseEntity<Student>> editStudent(@RequestBody Student student) {
+        return studentService.editStudent(student)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Void>> deleteStudent(@PathVariable Long id) {
+        return studentService.deleteStudent(id)
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping
+    public ResponseEntity<Flux<Student>> getAllStudents(@RequestParam(required = false) Long after,
+                                                        @RequestParam(required = false) Integer limit) {
+        if (after == null && limit == null) {
+            return ResponseEntity.ok(studentService.getAllStudents());
+        }
+        int pageLimit = limit == null ? DEFAULT_PAGE_LIMIT : limit;
+        if (pageLimit <= 0 || pageLimit > MAX_PAGE_LIMIT || (after != null && after < 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentService.getStudentsAfter(after == null ? 0 : after, pageLimit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Student> streamStudents() {
+        return studentService.getAllStudents();
+    }
+
+    @GetMapping("/by-age")
+    public Flux<Student> findStudents(@RequestParam(required = false) Integer age) {
+        if (age != null && age > 0) {
+            return studentService.findByAge(age);
+        }
+        return Flux.empty();
+    }
+
+    @GetMapping("/age-range")
+    public ResponseEntity<Flux<Student>> findStudentsByAgeRange(@RequestParam int minAge,
+                                                                @RequestParam int maxAge) {
+        if (minAge < 0 || maxAge < 0 || minAge > maxAge) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentService.findByAgeBetween(minAge, maxAge));
+    }
+
+    @GetMapping("/{id}/faculty")
+    public Mono<ResponseEntity<Faculty>> getStudentFaculty(@PathVariable Long id) {
+        return studentService.findStudentFaculty(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/names")
+    public ResponseEntity<Flux<String>> getNamesStartingWith(@RequestParam String prefix,
+                                                             @RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "100") int size) {
+        if (prefix.isBlank() || page < 0 || size <= 0 || size > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(studentService.getNamesStartingWith(prefix, page, size));
+    }
+
+    @GetMapping("/names/starting-with-a")
+    public Flux<String> getNamesStartingWithA() {
+        return studentService.getAllNamesStartingWithA();
+    }
+
+    @GetMapping("/average-age")
+    public Mono<Double> getAverageAge() {
+        return studentService.getAverageAge();
+    }
+
+    @GetMapping("/count")
+    public Mono<Long> getStudentCount() {
+        return studentService.getStudentCount();
+    }
+
+    @GetMapping("/age-histogram")
+    public Flux<AgeCount> getAgeHistogram() {
+        return studentService.getAgeHistogram();
+    }
+}
@@ -0,0 +1,10 @@
+package ru.hogwarts.school.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("faculty")
+public record Faculty(@Id Long id, String name, String color, @JsonIgnore @Version Long version) {
+}
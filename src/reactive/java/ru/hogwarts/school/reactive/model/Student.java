@@ -0,0 +1,15 @@
+package ru.hogwarts.school.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("student")
+public record Student(@Id Long id,
+                      String name,
+                      int age,
+                      @JsonIgnore @Version Long version,
+                      @JsonIgnore @Column("faculty_id") Long facultyId) {
+}
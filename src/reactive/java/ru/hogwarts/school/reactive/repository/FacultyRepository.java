@@ -0,0 +1,29 @@
+package ru.hogwarts.school.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.reactive.model.Faculty;
+
+public interface FacultyRepository extends ReactiveCrudRepository<Faculty, Long> {
+
+    @Query("SELECT * FROM faculty WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Faculty> findAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    Flux<Faculty> findByColorIgnoreCase(String color);
+
+    Flux<Faculty> findByNameIgnoreCase(String name);
+
+    @Query("SELECT * FROM faculty WHERE upper(name) LIKE upper(:pattern) ESCAPE '\\' " +
+            "ORDER BY upper(name), id LIMIT :limit")
+    Flux<Faculty> searchByNamePattern(@Param("pattern") String pattern, @Param("limit") int limit);
+
+    @Query("SELECT * FROM faculty WHERE name % :query " +
+            "ORDER BY similarity(name, :query) DESC, id LIMIT :limit")
+    Flux<Faculty> searchByNameSimilarity(@Param("query") String query, @Param("limit") int limit);
+
+    @Query("SELECT name FROM faculty WHERE name <> '' ORDER BY length(name) DESC LIMIT 1")
+    Mono<String> findLongestName();
+}
@@ -0,0 +1,44 @@
+package ru.hogwarts.school.reactive.repository;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.reactive.model.Student;
+
+public interface StudentRepository extends ReactiveCrudRepository<Student, Long> {
+
+    // Takes the sequence value itself; Hibernate's pooled optimizer only hands out ids below the values it fetched
+    @Query("INSERT INTO student (id, name, age, version, faculty_id) " +
+            "VALUES (nextval('student_seq'), :name, :age, 0, :facultyId) RETURNING *")
+    Mono<Student> insert(@Param("name") String name, @Param("age") int age, @Param("facultyId") Long facultyId);
+
+    @Query("SELECT * FROM student WHERE id > :afterId ORDER BY id LIMIT :limit")
+    Flux<Student> findAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    Flux<Student> findByAge(int age);
+
+    Flux<Student> findByAgeBetween(int minAge, int maxAge);
+
+    Flux<Student> findByFacultyId(long facultyId);
+
+    @Query("SELECT upper(name) FROM student " +
+            "WHERE upper(name) COLLATE \"C\" LIKE upper(:pattern) ESCAPE '\\' " +
+            "ORDER BY upper(name) COLLATE \"C\" LIMIT :limit OFFSET :offset")
+    Flux<String> findUpperCaseNamesLike(@Param("pattern") String pattern,
+                                        @Param("limit") int limit,
+                                        @Param("offset") long offset);
+
+    @Query("SELECT upper(name) FROM student " +
+            "WHERE upper(name) COLLATE \"C\" LIKE upper(:pattern) ESCAPE '\\' " +
+            "ORDER BY upper(name) COLLATE \"C\"")
+    Flux<String> findUpperCaseNamesLike(@Param("pattern") String pattern);
+
+    @Query("SELECT AVG(age) FROM student")
+    Mono<Double> getAverageAge();
+
+    @Query("SELECT age, COUNT(*) AS count FROM student GROUP BY age ORDER BY age")
+    Flux<AgeCount> getAgeHistogram();
+}
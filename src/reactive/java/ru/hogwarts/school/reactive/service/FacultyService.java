@@ -0,0 +1,34 @@
+package ru.hogwarts.school.reactive.service;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+
+public interface FacultyService {
+
+    Mono<Faculty> addFaculty(Faculty faculty);
+
+    Mono<ResponseEntity<Faculty>> findFaculty(long id);
+
+    Mono<ResponseEntity<Flux<Student>>> findFacultyStudents(long id);
+
+    Mono<Faculty> editFaculty(Faculty faculty);
+
+    Mono<ResponseEntity<Void>> deleteFaculty(long id);
+
+    Flux<Faculty> findByColorIgnoreCase(String color);
+
+    Flux<Faculty> findByNameIgnoreCase(String name);
+
+    Flux<Faculty> findByNamePrefix(String prefix, int limit);
+
+    Flux<Faculty> findByNameSimilarTo(String query, int limit);
+
+    Flux<Faculty> getAllFaculties();
+
+    Flux<Faculty> getFacultiesAfter(long afterId, int limit);
+
+    Mono<String> getLongestFacultyName();
+}
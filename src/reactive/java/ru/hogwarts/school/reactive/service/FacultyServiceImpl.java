@@ -0,0 +1,130 @@
+package ru.hogwarts.school.reactive.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+import ru.hogwarts.school.reactive.repository.FacultyRepository;
+import ru.hogwarts.school.reactive.repository.StudentRepository;
+import ru.hogwarts.school.repository.LikePatterns;
+
+@Service
+public class FacultyServiceImpl implements FacultyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FacultyServiceImpl.class);
+
+    private final FacultyRepository facultyRepository;
+    private final StudentRepository studentRepository;
+
+    public FacultyServiceImpl(FacultyRepository facultyRepository, StudentRepository studentRepository) {
+        this.facultyRepository = facultyRepository;
+        this.studentRepository = studentRepository;
+    }
+
+    @Override
+    public Mono<Faculty> addFaculty(Faculty faculty) {
+        logger.info("Was invoked method to add new faculty: name={}, color={}", faculty.name(), faculty.color());
+        return facultyRepository.save(new Faculty(null, faculty.name(), faculty.color(), null));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Faculty>> findFaculty(long id) {
+        logger.info("Was invoked method to find faculty by id={}", id);
+        if (id <= 0) {
+            logger.error("Invalid faculty id: {}", id);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return facultyRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Mono<ResponseEntity<Flux<Student>>> findFacultyStudents(long id) {
+        logger.info("Was invoked method to find students of faculty with id={}", id);
+        if (id <= 0) {
+            logger.error("Invalid faculty id: {}", id);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return facultyRepository.existsById(id)
+                .map(exists -> exists
+                        ? ResponseEntity.ok(studentRepository.findByFacultyId(id))
+                        : ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Mono<Faculty> editFaculty(Faculty faculty) {
+        logger.info("Was invoked method to edit faculty with id={}, new name={}, color={}",
+                faculty.id(), faculty.name(), faculty.color());
+        if (faculty.id() == null) {
+            return Mono.empty();
+        }
+        return facultyRepository.findById(faculty.id())
+                .flatMap(existing -> facultyRepository.save(
+                        new Faculty(existing.id(), faculty.name(), faculty.color(), existing.version())));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteFaculty(long id) {
+        logger.info("Was invoked method to delete faculty with id={}", id);
+        if (id <= 0) {
+            logger.error("Invalid faculty id for deletion: {}", id);
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return facultyRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? facultyRepository.deleteById(id).thenReturn(ResponseEntity.noContent().<Void>build())
+                        : Mono.just(ResponseEntity.notFound().<Void>build()));
+    }
+
+    @Override
+    public Flux<Faculty> findByColorIgnoreCase(String color) {
+        logger.info("Was invoked method findByColorIgnoreCase with color='{}'", color);
+        if (color == null || color.isBlank()) {
+            return Flux.empty();
+        }
+        return facultyRepository.findByColorIgnoreCase(color);
+    }
+
+    @Override
+    public Flux<Faculty> findByNameIgnoreCase(String name) {
+        logger.info("Was invoked method findByNameIgnoreCase with name='{}'", name);
+        if (name == null || name.isBlank()) {
+            return Flux.empty();
+        }
+        return facultyRepository.findByNameIgnoreCase(name);
+    }
+
+    @Override
+    public Flux<Faculty> findByNamePrefix(String prefix, int limit) {
+        logger.info("Was invoked method findByNamePrefix with prefix='{}', limit={}", prefix, limit);
+        return facultyRepository.searchByNamePattern(LikePatterns.startingWith(prefix), limit);
+    }
+
+    @Override
+    public Flux<Faculty> findByNameSimilarTo(String query, int limit) {
+        logger.info("Was invoked method findByNameSimilarTo with query='{}', limit={}", query, limit);
+        return facultyRepository.searchByNameSimilarity(query, limit);
+    }
+
+    @Override
+    public Flux<Faculty> getAllFaculties() {
+        logger.info("Was invoked method getAllFaculties");
+        return facultyRepository.findAll();
+    }
+
+    @Override
+    public Flux<Faculty> getFacultiesAfter(long afterId, int limit) {
+        logger.info("Was invoked method getFacultiesAfter with after={}, limit={}", afterId, limit);
+        return facultyRepository.findAfter(afterId, limit);
+    }
+
+    @Override
+    public Mono<String> getLongestFacultyName() {
+        return facultyRepository.findLongestName();
+    }
+}
@@ -0,0 +1,39 @@
+package ru.hogwarts.school.reactive.service;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+
+public interface StudentService {
+
+    Mono<Student> addStudent(Student student);
+
+    Mono<ResponseEntity<Student>> findStudent(long id);
+
+    Mono<Student> editStudent(Student student);
+
+    Mono<ResponseEntity<Void>> deleteStudent(long id);
+
+    Flux<Student> getAllStudents();
+
+    Flux<Student> getStudentsAfter(long afterId, int limit);
+
+    Flux<Student> findByAge(int age);
+
+    Flux<Student> findByAgeBetween(int minAge, int maxAge);
+
+    Mono<Faculty> findStudentFaculty(long id);
+
+    Flux<String> getAllNamesStartingWithA();
+
+    Flux<String> getNamesStartingWith(String prefix, int page, int size);
+
+    Mono<Double> getAverageAge();
+
+    Mono<Long> getStudentCount();
+
+    Flux<AgeCount> getAgeHistogram();
+}
@@ -0,0 +1,116 @@
+package ru.hogwarts.school.reactive.service;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.reactive.model.Faculty;
+import ru.hogwarts.school.reactive.model.Student;
+import ru.hogwarts.school.reactive.repository.FacultyRepository;
+import ru.hogwarts.school.reactive.repository.StudentRepository;
+import ru.hogwarts.school.repository.LikePatterns;
+
+@Service
+public class StudentServiceImpl implements StudentService {
+
+    private final StudentRepository studentRepository;
+    private final FacultyRepository facultyRepository;
+
+    public StudentServiceImpl(StudentRepository studentRepository, FacultyRepository facultyRepository) {
+        this.studentRepository = studentRepository;
+        this.facultyRepository = facultyRepository;
+    }
+
+    @Override
+    public Mono<Student> addStudent(Student student) {
+        return studentRepository.insert(student.name(), student.age(), student.facultyId());
+    }
+
+    @Override
+    public Mono<ResponseEntity<Student>> findStudent(long id) {
+        if (id <= 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return studentRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Mono<Student> editStudent(Student student) {
+        if (student.id() == null) {
+            return Mono.empty();
+        }
+        return studentRepository.findById(student.id())
+                .flatMap(existing -> studentRepository.save(
+                        new Student(existing.id(), student.name(), student.age(), existing.version(),
+                                student.facultyId())));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Void>> deleteStudent(long id) {
+        if (id <= 0) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return studentRepository.findById(id)
+                .flatMap(student -> studentRepository.deleteById(id)
+                        .thenReturn(ResponseEntity.noContent().<Void>build()))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Override
+    public Flux<Student> getAllStudents() {
+        return studentRepository.findAll();
+    }
+
+    @Override
+    public Flux<Student> getStudentsAfter(long afterId, int limit) {
+        return studentRepository.findAfter(afterId, limit);
+    }
+
+    @Override
+    public Flux<Student> findByAge(int age) {
+        return studentRepository.findByAge(age);
+    }
+
+    @Override
+    public Flux<Student> findByAgeBetween(int minAge, int maxAge) {
+        return studentRepository.findByAgeBetween(minAge, maxAge);
+    }
+
+    @Override
+    public Mono<Faculty> findStudentFaculty(long id) {
+        return studentRepository.findById(id)
+                .filter(student -> student.facultyId() != null)
+                .flatMap(student -> facultyRepository.findById(student.facultyId()));
+    }
+
+    @Override
+    public Flux<String> getAllNamesStartingWithA() {
+        return studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("A"));
+    }
+
+    @Override
+    public Flux<String> getNamesStartingWith(String prefix, int page, int size) {
+        if (prefix == null || prefix.isEmpty()) {
+            return Flux.empty();
+        }
+        return studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith(prefix), size, (long) page * size);
+    }
+
+    @Override
+    public Mono<Double> getAverageAge() {
+        return studentRepository.getAverageAge().defaultIfEmpty(0.0);
+    }
+
+    @Override
+    public Mono<Long> getStudentCount() {
+        return studentRepository.count();
+    }
+
+    @Override
+    public Flux<AgeCount> getAgeHistogram() {
+        return studentRepository.getAgeHistogram();
+    }
+}
@@ -110,6 +110,8 @@ public class FacultyControllerTest {
         assertEquals("Blue", postResponse.getBody().getColor());
 
 
+        when(facultyRepository.findById(eq(1L))).thenReturn(Optional.of(faculty));
+
         ResponseEntity<Faculty> putResponse = restTemplate.exchange(
                 BASE_URL,
                 HttpMethod.PUT,
@@ -179,7 +181,7 @@ public class FacultyControllerTest {
         faculty.setStudents(students);
 
 
-        when(facultyRepository.findById(facultyId))
+        when(facultyRepository.findWithStudentsById(facultyId))
                 .thenReturn(Optional.of(faculty));
 
 
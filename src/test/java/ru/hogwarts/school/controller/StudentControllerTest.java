@@ -14,6 +14,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import ru.hogwarts.school.dto.StudentSummary;
 import ru.hogwarts.school.model.Faculty;
 import ru.hogwarts.school.model.Student;
 import ru.hogwarts.school.repository.FacultyRepository;
@@ -118,6 +119,7 @@ public class StudentControllerTest {
         updatedStudent.setName("Ron Weasley");
         updatedStudent.setAge(13);
 
+        when(studentRepository.findById(eq(1L))).thenReturn(Optional.of(testStudent));
         when(studentRepository.save(any(Student.class))).thenReturn(updatedStudent);
 
         ResponseEntity<Student> putResponse = restTemplate.exchange
@@ -151,8 +153,9 @@ public class StudentControllerTest {
 
     @Test
     void testGetAllStudents() {
-        when(studentRepository.findAll())
-                .thenReturn(java.util.List.of(testStudent));
+        when(studentRepository.streamSummaries())
+                .thenReturn(java.util.stream.Stream.of(
+                        new StudentSummary(testStudent.getId(), testStudent.getName(), testStudent.getAge())));
 
 
         ResponseEntity<Collection<Student>> response = restTemplate.exchange(
@@ -0,0 +1,122 @@
+package ru.hogwarts.school.controller.test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.hogwarts.school.controller.AvatarController;
+import ru.hogwarts.school.model.Avatar;
+import ru.hogwarts.school.service.AvatarServiceImpl;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AvatarController.class)
+@Import(SimpleMeterRegistry.class)
+class AvatarControllerTest {
+
+    private static final String CONTENT = "0123456789";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @MockBean
+    private AvatarServiceImpl avatarService;
+
+    @TempDir
+    Path avatarsDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path file = Files.writeString(avatarsDir.resolve("1.png"), CONTENT, StandardCharsets.US_ASCII);
+        Avatar avatar = new Avatar(1L, file.toString(), "image/png", CONTENT.length(), null);
+        when(avatarService.findAvatar(1L)).thenReturn(avatar);
+        when(avatarService.findAvatar(2L)).thenReturn(new Avatar());
+    }
+
+    @Test
+    void testDownloadAvatar_FullContent() throws Exception {
+        mockMvc.perform(get("/avatar/{id}/avatar", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().string(CONTENT));
+
+        assertTrue(meterRegistry.get("school.avatar.bytes").tag("transfer", "channel").summary().totalAmount()
+                >= CONTENT.length());
+    }
+
+    @Test
+    void testDownloadAvatar_ContentHashETag() throws Exception {
+        Path file = Files.writeString(avatarsDir.resolve("abc.png"), CONTENT, StandardCharsets.US_ASCII);
+        Avatar avatar = new Avatar(3L, file.toString(), "image/png", CONTENT.length(), null);
+        avatar.setContentHash("abc");
+        when(avatarService.findAvatar(3L)).thenReturn(avatar);
+
+        mockMvc.perform(get("/avatar/{id}/avatar", 3L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""));
+
+        mockMvc.perform(get("/avatar/{id}/avatar", 3L).header(HttpHeaders.IF_NONE_MATCH, "\"abc\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void testDownloadAvatar_NotModified() throws Exception {
+        MvcResult first = mockMvc.perform(get("/avatar/{id}/avatar", 1L)).andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/avatar/{id}/avatar", 1L).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testDownloadAvatar_Range() throws Exception {
+        mockMvc.perform(get("/avatar/{id}/avatar", 1L).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+                .andExpect(content().string("2345"));
+    }
+
+    @Test
+    void testDownloadAvatar_IfRangeMismatchReturnsFullContent() throws Exception {
+        mockMvc.perform(get("/avatar/{id}/avatar", 1L)
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().string(CONTENT));
+    }
+
+    @Test
+    void testDownloadAvatar_UnsatisfiableRange() throws Exception {
+        mockMvc.perform(get("/avatar/{id}/avatar", 1L).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void testDownloadAvatar_NotFound() throws Exception {
+        mockMvc.perform(get("/avatar/{id}/avatar", 2L))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -7,12 +7,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import ru.hogwarts.school.controller.FacultyController;
+import ru.hogwarts.school.dto.FacultyBatchItem;
+import ru.hogwarts.school.dto.FacultyStats;
 import ru.hogwarts.school.model.Faculty;
 import ru.hogwarts.school.model.Student;
 import ru.hogwarts.school.repository.FacultyRepository;
@@ -22,7 +27,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -193,7 +203,7 @@ class FacultyControllerTest {
         faculty.setStudents(List.of(student));
 
 
-        when(facultyService.findFaculty(facultyId))
+        when(facultyService.findFacultyWithStudents(facultyId))
                 .thenReturn(ResponseEntity.ok(faculty));
 
         mockMvc.perform(get("/faculty/{id}/students", facultyId))
@@ -297,10 +307,170 @@ class FacultyControllerTest {
     @Test
     void testGetFacultyStudents_NotFound() throws Exception {
         Long facultyId = 999L;
-        when(facultyService.findFaculty(facultyId))
+        when(facultyService.findFacultyWithStudents(facultyId))
                 .thenReturn(ResponseEntity.notFound().build());
 
         mockMvc.perform(get("/faculty/{id}/students", facultyId))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetFacultiesAfterCursor() throws Exception {
+        List<Faculty> faculties = List.of(new Faculty(3L, "Ravenclaw", "Blue"));
+        when(facultyService.getFacultiesAfter(2L, 1)).thenReturn(faculties);
+
+        mockMvc.perform(get("/faculty").param("after", "2").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3L))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void testGetFacultiesAfterCursor_LimitTooLarge() throws Exception {
+        mockMvc.perform(get("/faculty").param("limit", "100000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamFaculties() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Faculty> action = invocation.getArgument(0);
+            action.accept(new Faculty(1L, "Gryffindor", "Red"));
+            return null;
+        }).when(facultyService).forEachFaculty(any());
+
+        MvcResult result = mockMvc.perform(get("/faculty/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(startsWith("{\"id\":1,\"name\":\"Gryffindor\"")));
+    }
+
+    @Test
+    void testSearchByNamePrefix() throws Exception {
+        when(facultyService.findByNamePrefix("gryf", 20))
+                .thenReturn(List.of(new Faculty(1L, "Gryffindor", "Red")));
+
+        mockMvc.perform(get("/faculty/search/prefix").param("prefix", "gryf"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Gryffindor"));
+    }
+
+    @Test
+    void testSearchByNameSimilarTo() throws Exception {
+        when(facultyService.findByNameSimilarTo("Grifindor", 5))
+                .thenReturn(List.of(new Faculty(1L, "Gryffindor", "Red")));
+
+        mockMvc.perform(get("/faculty/search/fuzzy").param("q", "Grifindor").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Gryffindor"));
+    }
+
+    @Test
+    void testSearch_BlankQueryOrBadLimit() throws Exception {
+        mockMvc.perform(get("/faculty/search/prefix").param("prefix", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/faculty/search/fuzzy").param("q", "Gryffindor").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetFacultyStats() throws Exception {
+        when(facultyService.getFacultyStats()).thenReturn(List.of(
+                new FacultyStats(1L, "Gryffindor", 2, 16.5, 15, 18, "Hermione Granger"),
+                new FacultyStats(2L, "Hufflepuff", 0, 0.0, null, null, null)));
+
+        mockMvc.perform(get("/faculty/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].facultyName").value("Gryffindor"))
+                .andExpect(jsonPath("$[0].studentCount").value(2))
+                .andExpect(jsonPath("$[0].averageAge").value(16.5))
+                .andExpect(jsonPath("$[0].longestStudentName").value("Hermione Granger"))
+                .andExpect(jsonPath("$[1].studentCount").value(0))
+                .andExpect(jsonPath("$[1].minAge").doesNotExist());
+    }
+
+    @Test
+    void testBatchGetFaculties() throws Exception {
+        when(facultyService.getFacultiesByIds(List.of(2L, 1L, 9L))).thenReturn(List.of(
+                FacultyBatchItem.of(2L, new Faculty(2L, "Slytherin", "Green")),
+                FacultyBatchItem.of(1L, new Faculty(1L, "Gryffindor", "Red")),
+                FacultyBatchItem.of(9L, null)));
+
+        mockMvc.perform(post("/faculty/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[2, 1, 9]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].faculty.name").value("Slytherin"))
+                .andExpect(jsonPath("$[1].faculty.name").value("Gryffindor"))
+                .andExpect(jsonPath("$[2].found").value(false));
+    }
+
+    @Test
+    void testGetFacultyInfo_ETagAndNotModified() throws Exception {
+        Faculty faculty = new Faculty(1L, "Gryffindor", "Red");
+        faculty.setVersion(3L);
+        when(facultyService.findFaculty(1L)).thenReturn(ResponseEntity.ok(faculty));
+
+        mockMvc.perform(get("/faculty/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        mockMvc.perform(get("/faculty/{id}", 1L).header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testEditFaculty_StaleIfMatch() throws Exception {
+        Faculty faculty = new Faculty(1L, "Ravenclaw", "Blue");
+        when(facultyService.editFaculty(any(Faculty.class), eq(List.of(2L))))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(put("/faculty")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(faculty)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testEditFaculty_IfMatchList() throws Exception {
+        Faculty faculty = new Faculty(1L, "Ravenclaw", "Blue");
+        when(facultyService.editFaculty(any(Faculty.class), eq(List.of(3L, 4L)))).thenReturn(faculty);
+
+        mockMvc.perform(put("/faculty")
+                        .header(HttpHeaders.IF_MATCH, "\"3\", W/\"5\", \"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(faculty)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testEditFaculty_WeakIfMatchNeverMatches() throws Exception {
+        Faculty faculty = new Faculty(1L, "Ravenclaw", "Blue");
+        when(facultyService.editFaculty(any(Faculty.class), eq(List.of())))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(put("/faculty")
+                        .header(HttpHeaders.IF_MATCH, "W/\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(faculty)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void testGetFacultyStudents_WeakETag() throws Exception {
+        Faculty faculty = new Faculty(1L, "Gryffindor", "Red");
+        faculty.setStudents(List.of(new Student(1L, "Harry Potter", 17)));
+        when(facultyService.findFacultyWithStudents(1L)).thenReturn(ResponseEntity.ok(faculty));
+
+        mockMvc.perform(get("/faculty/{id}/students", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("W/\"")));
+    }
+}
@@ -8,24 +8,36 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import ru.hogwarts.school.controller.StudentController;
+import ru.hogwarts.school.dto.AgeCount;
+import ru.hogwarts.school.dto.StudentBatchItem;
+import ru.hogwarts.school.dto.StudentImportError;
+import ru.hogwarts.school.dto.StudentImportResult;
+import ru.hogwarts.school.dto.StudentSummary;
 import ru.hogwarts.school.model.Faculty;
 import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.service.StudentImportService;
 import ru.hogwarts.school.service.StudentService;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 
 
 @WebMvcTest(StudentController.class)
@@ -38,6 +50,9 @@ class StudentControllerTest {
     @MockBean
     private StudentService studentService;
 
+    @MockBean
+    private StudentImportService studentImportService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Test
@@ -88,6 +103,49 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.age").value(18));
     }
 
+    @Test
+    void testGetStudentInfo_ETagAndNotModified() throws Exception {
+        Student student = new Student(1L, "Test Student", 18);
+        student.setVersion(5L);
+        when(studentService.findStudent(1L)).thenReturn(ResponseEntity.ok(student));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"5\""));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/{id}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void testEditStudent_IfMatch() throws Exception {
+        Student student = new Student(1L, "Updated Student", 18);
+        Student saved = new Student(1L, "Updated Student", 18);
+        saved.setVersion(6L);
+        when(studentService.editStudent(any(Student.class), eq(List.of(5L)))).thenReturn(saved);
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/student")
+                        .header(HttpHeaders.IF_MATCH, "\"5\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(student)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"6\""));
+    }
+
+    @Test
+    void testEditStudent_ConcurrentUpdateWithoutIfMatch() throws Exception {
+        Student student = new Student(1L, "Updated Student", 18);
+        when(studentService.editStudent(any(Student.class)))
+                .thenThrow(new OptimisticLockingFailureException("stale"));
+
+        mockMvc.perform(MockMvcRequestBuilders.put("/student")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(student)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void testDeleteStudent() throws Exception {
         Long studentId = 1L;
@@ -101,17 +159,35 @@ class StudentControllerTest {
 
     @Test
     void testGetAllStudents() throws Exception {
-        Collection<Student> students = List.of(
-                new Student(1L, "Student 1", 17),
-                new Student(2L, "Student 2", 18)
-        );
-        when(studentService.getAllStudents()).thenReturn(students);
+        doAnswer(invocation -> {
+            Consumer<StudentSummary> action = invocation.getArgument(0);
+            action.accept(new StudentSummary(1L, "Student 1", 17));
+            action.accept(new StudentSummary(2L, "Student 2", 18));
+            return null;
+        }).when(studentService).forEachStudentSummary(any());
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/student"))
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/student"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-                .andExpect(jsonPath("$[0].name").value("Student 1"))
-                .andExpect(jsonPath("$[1].name").value("Student 2"));
+                .andExpect(content().json(
+                        "[{\"id\":1,\"name\":\"Student 1\",\"age\":17}," +
+                        "{\"id\":2,\"name\":\"Student 2\",\"age\":18}]", true));
+        verify(studentService, never()).getAllStudents();
+    }
+
+    @Test
+    void testGetAllStudents_Empty() throws Exception {
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/student"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("[]"));
     }
 
     @Test
@@ -157,4 +233,177 @@ class StudentControllerTest {
                 .andExpect(jsonPath("$.name").value("Gryffindor"))
                 .andExpect(jsonPath("$.color").value("Red"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetStudentsAfterCursor() throws Exception {
+        Collection<Student> students = List.of(
+                new Student(11L, "Student 11", 17),
+                new Student(12L, "Student 12", 18)
+        );
+        when(studentService.getStudentsAfter(10L, 2)).thenReturn(students);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student?after=10&limit=2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(11L))
+                .andExpect(jsonPath("$[1].id").value(12L));
+    }
+
+    @Test
+    void testGetStudentsAfterCursor_InvalidLimit() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/student?after=10&limit=0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamStudents() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Student> action = invocation.getArgument(0);
+            action.accept(new Student(1L, "Student 1", 17));
+            action.accept(new Student(2L, "Student 2", 18));
+            return null;
+        }).when(studentService).forEachStudent(any());
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/student/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(
+                        "{\"id\":1,\"name\":\"Student 1\",\"age\":17}\n" +
+                        "{\"id\":2,\"name\":\"Student 2\",\"age\":18}\n"));
+    }
+
+    @Test
+    void testImportStudentsCsv() throws Exception {
+        StudentImportResult result = new StudentImportResult(2, 1,
+                List.of(new StudentImportError(3, "Имя студента не указано")), 5, 400.0);
+        when(studentImportService.importCsv(any())).thenReturn(result);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/student/bulk")
+                        .contentType("text/csv")
+                        .content("name,age\nHarry,17\nRon,17\n,17\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(3));
+    }
+
+    @Test
+    void testImportStudentsJson_Malformed() throws Exception {
+        when(studentImportService.importJson(any())).thenThrow(new IllegalArgumentException("bad"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/student/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetAverageAge() throws Exception {
+        when(studentService.getAverageAge()).thenReturn(17.5);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/average-age"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("17.5"));
+    }
+
+    @Test
+    void testGetStudentCount() throws Exception {
+        when(studentService.getStudentCount()).thenReturn(42L);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/count"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+    }
+
+    @Test
+    void testGetAgeHistogram() throws Exception {
+        AgeCount seventeen = ageCount(17, 3);
+        AgeCount eighteen = ageCount(18, 5);
+        when(studentService.getAgeHistogram()).thenReturn(List.of(seventeen, eighteen));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/age-histogram"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].age").value(17))
+                .andExpect(jsonPath("$[0].count").value(3))
+                .andExpect(jsonPath("$[1].age").value(18))
+                .andExpect(jsonPath("$[1].count").value(5));
+    }
+
+    @Test
+    void testGetNamesStartingWith() throws Exception {
+        when(studentService.getNamesStartingWith("ha", 1, 2)).thenReturn(List.of("HARRY", "HANNAH"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/names")
+                        .param("prefix", "ha")
+                        .param("page", "1")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value("HARRY"))
+                .andExpect(jsonPath("$[1]").value("HANNAH"));
+    }
+
+    @Test
+    void testGetNamesStartingWith_InvalidParameters() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/names").param("prefix", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/names").param("prefix", "ha").param("page", "-1"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(MockMvcRequestBuilders.get("/student/names").param("prefix", "ha").param("size", "5000"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static AgeCount ageCount(int age, long count) {
+        return new AgeCount() {
+            @Override
+            public int getAge() {
+                return age;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void testGetStudentsByIds_KeepsRequestOrderAndFlagsMissing() throws Exception {
+        Faculty faculty = new Faculty(5L, "Gryffindor", "Red");
+        Student student = new Student(3L, "Harry Potter", 17);
+        student.setFaculty(faculty);
+        when(studentService.getStudentsByIds(List.of(3L, 42L))).thenReturn(List.of(
+                StudentBatchItem.of(3L, student),
+                StudentBatchItem.of(42L, null)));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/student").param("ids", "3,42"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].student.name").value("Harry Potter"))
+                .andExpect(jsonPath("$[0].faculty.name").value("Gryffindor"))
+                .andExpect(jsonPath("$[1].id").value(42))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andExpect(jsonPath("$[1].student").doesNotExist());
+    }
+
+    @Test
+    void testBatchGetStudents() throws Exception {
+        when(studentService.getStudentsByIds(List.of(7L)))
+                .thenReturn(List.of(StudentBatchItem.of(7L, new Student(7L, "Luna Lovegood", 16))));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/student/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[7]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].student.name").value("Luna Lovegood"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/student/batch-get")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, null]"))
+                .andExpect(status().isBadRequest());
+    }
+}
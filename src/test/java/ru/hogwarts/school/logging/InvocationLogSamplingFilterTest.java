@@ -0,0 +1,57 @@
+package ru.hogwarts.school.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvocationLogSamplingFilterTest {
+
+    private static final String FIND = "Was invoked method to find faculty by id={}";
+    private static final String DELETE = "Was invoked method to delete faculty with id={}";
+
+    private final InvocationLogSamplingFilter filter = new InvocationLogSamplingFilter();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        logger = context.getLogger("ru.hogwarts.school.service.FacultyServiceImpl");
+        logger.setLevel(Level.INFO);
+        filter.setSampleRate(10);
+    }
+
+    @Test
+    void decide_SamplesEachCallSiteSeparately() {
+        assertEquals(1, passed(FIND, Level.INFO, 10));
+        assertEquals(1, passed(DELETE, Level.INFO, 10));
+        assertEquals(10, passed(FIND, Level.INFO, 100));
+    }
+
+    @Test
+    void decide_KeepsOtherMessagesAndLevels() {
+        assertEquals(10, passed("Faculty not found with id={}", Level.INFO, 10));
+        assertEquals(10, passed(FIND, Level.WARN, 10));
+    }
+
+    @Test
+    void decide_DoesNotSampleWhenDebugIsEnabled() {
+        logger.setLevel(Level.DEBUG);
+
+        assertEquals(10, passed(FIND, Level.INFO, 10));
+    }
+
+    private int passed(String format, Level level, int calls) {
+        int passed = 0;
+        for (int i = 0; i < calls; i++) {
+            if (filter.decide(null, logger, level, format, new Object[]{i}, null) != FilterReply.DENY) {
+                passed++;
+            }
+        }
+        return passed;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.hogwarts.school.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import ru.hogwarts.school.model.Faculty;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the search queries against PostgreSQL with the Liquibase index scripts applied and checks
+ * the plans. Sequential scans are disabled so the plan shows whether an index is usable at all.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class FacultySearchIndexTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(
+                new ClassPathResource("liquibase/scripts/faculty-search-indexes.sql"),
+                new ClassPathResource("liquibase/scripts/faculty-trigram-index.sql")
+        ).execute(dataSource);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            rows.add(new Object[]{"Faculty " + i, "Color " + i % 50});
+        }
+        rows.add(new Object[]{"Gryffindor", "Red"});
+        rows.add(new Object[]{"Hufflepuff", "Yellow"});
+        jdbcTemplate.batchUpdate("INSERT INTO faculty (name, color) VALUES (?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE faculty");
+        jdbcTemplate.execute("SET enable_seqscan = off");
+    }
+
+    @Test
+    void findByNameIgnoreCase_UsesUpperNameIndex() {
+        assertEquals(1, facultyRepository.findByNameIgnoreCase("gryffindor").size());
+
+        assertTrue(explain("SELECT * FROM faculty WHERE upper(name) = upper('gryffindor')")
+                .contains("faculty_upper_name_index"));
+    }
+
+    @Test
+    void findByColorIgnoreCase_UsesUpperColorIndex() {
+        assertEquals(1, facultyRepository.findByColorIgnoreCase("YELLOW").size());
+
+        assertTrue(explain("SELECT * FROM faculty WHERE upper(color) = upper('yellow')")
+                .contains("faculty_upper_color_index"));
+    }
+
+    @Test
+    void searchByNamePattern_UsesUpperNameIndex() {
+        List<Faculty> found = facultyRepository.searchByNamePattern("gryf%", 10);
+        assertEquals("Gryffindor", found.get(0).getName());
+
+        assertTrue(explain("SELECT * FROM faculty WHERE upper(name) LIKE upper('gryf%') ESCAPE '\\' " +
+                "ORDER BY upper(name), id LIMIT 10").contains("faculty_upper_name_index"));
+    }
+
+    @Test
+    void searchByNameSimilarity_UsesTrigramIndex() {
+        List<Faculty> found = facultyRepository.searchByNameSimilarity("Grifindor", 5);
+        assertEquals("Gryffindor", found.get(0).getName());
+
+        assertTrue(explain("SELECT * FROM faculty WHERE name % 'Grifindor' " +
+                "ORDER BY similarity(name, 'Grifindor') DESC, id LIMIT 5").contains("faculty_name_trgm_index"));
+    }
+
+    private String explain(String sql) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class));
+    }
+}
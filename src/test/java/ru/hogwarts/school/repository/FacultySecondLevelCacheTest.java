@@ -0,0 +1,149 @@
+package ru.hogwarts.school.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.hogwarts.school.config.MetricsConfig;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside the test transaction: second-level cache entries are only published on commit.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({MetricsConfig.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FacultySecondLevelCacheTest {
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+
+    private Statistics statistics;
+    private long facultyId;
+    private long studentId;
+
+    @BeforeEach
+    void setUp() {
+        Faculty faculty = new Faculty();
+        faculty.setName("Ravenclaw");
+        faculty.setColor("Blue");
+        facultyId = facultyRepository.save(faculty).getId();
+
+        Student student = new Student();
+        student.setName("Luna Lovegood");
+        student.setAge(16);
+        student.setFaculty(faculty);
+        studentId = studentRepository.save(student).getId();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        facultyRepository.deleteAll();
+    }
+
+    @Test
+    void findById_SecondLookupIsServedFromSecondLevelCache() {
+        assertTrue(facultyRepository.findById(facultyId).isPresent());
+        assertTrue(facultyRepository.findById(facultyId).isPresent());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void cacheMetrics_PublishRegionHitsAndMisses() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+        double hits = cacheGets(registry, "hit");
+        double misses = cacheGets(registry, "miss");
+
+        assertTrue(facultyRepository.findById(facultyId).isPresent());
+        assertTrue(facultyRepository.findById(facultyId).isPresent());
+
+        assertEquals(1, cacheGets(registry, "hit") - hits);
+        assertTrue(cacheGets(registry, "miss") > misses);
+        assertNotNull(registry.find("cache.gets").tag("cache", "default-update-timestamps-region").functionCounter());
+    }
+
+    @Test
+    void findByColor_RepeatedQueryIsServedFromQueryCache() {
+        assertEquals(1, facultyRepository.findByColorIgnoreCase("blue").size());
+        assertEquals(1, facultyRepository.findByColorIgnoreCase("blue").size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void students_CollectionIsCachedAndEvictedWhenStudentMoves() {
+        assertEquals(1, countStudents());
+        assertEquals(1, countStudents());
+        assertEquals(2, statistics.getPrepareStatementCount());
+
+        Student student = studentRepository.findById(studentId).orElseThrow();
+        student.setFaculty(null);
+        studentRepository.save(student);
+
+        assertEquals(0, countStudents());
+    }
+
+    @Test
+    void save_InvalidatesCachedQueryResults() {
+        assertEquals(1, facultyRepository.findAll().size());
+
+        Faculty faculty = new Faculty();
+        faculty.setName("Hufflepuff");
+        faculty.setColor("Yellow");
+        facultyRepository.save(faculty);
+
+        assertEquals(2, facultyRepository.findAll().size());
+    }
+
+    private static double cacheGets(MeterRegistry registry, String result) {
+        return registry.get("cache.gets")
+                .tag("cache", Faculty.class.getName())
+                .tag("result", result)
+                .functionCounter().count();
+    }
+
+    private int countStudents() {
+        return transactionTemplate.execute(status ->
+                facultyRepository.findById(facultyId).orElseThrow().getStudents().size());
+    }
+}
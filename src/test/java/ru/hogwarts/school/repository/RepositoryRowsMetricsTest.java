@@ -0,0 +1,72 @@
+package ru.hogwarts.school.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.hogwarts.school.config.MetricsConfig;
+import ru.hogwarts.school.model.Student;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({MetricsConfig.class, SimpleMeterRegistry.class})
+class RepositoryRowsMetricsTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        for (int age = 11; age <= 13; age++) {
+            Student student = new Student();
+            student.setName("Student " + age);
+            student.setAge(age);
+            studentRepository.save(student);
+        }
+    }
+
+    @Test
+    void findAll_RecordsReturnedRows() {
+        assertEquals(3, studentRepository.findAll().size());
+
+        DistributionSummary rows = rows("findAll");
+        assertEquals(1, rows.count());
+        assertEquals(3, rows.totalAmount());
+    }
+
+    @Test
+    void streamAll_RecordsRowsWhenStreamIsClosed() {
+        try (Stream<Student> students = studentRepository.streamAll()) {
+            assertEquals(3, students.count());
+        }
+
+        assertEquals(3, rows("streamAll").totalAmount());
+    }
+
+    @Test
+    void aggregateQueries_AreNotCountedAsRows() {
+        studentRepository.countAllStudents();
+
+        assertNull(meterRegistry.find("school.repository.rows").tag("method", "countAllStudents").summary());
+    }
+
+    private DistributionSummary rows(String method) {
+        return meterRegistry.get("school.repository.rows")
+                .tag("repository", "StudentRepository")
+                .tag("method", method)
+                .summary();
+    }
+}
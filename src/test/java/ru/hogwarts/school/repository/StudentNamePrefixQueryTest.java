@@ -0,0 +1,63 @@
+package ru.hogwarts.school.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.hogwarts.school.model.Student;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the prefix query on the embedded database; the index and plan checks live in
+ * {@link StudentNameSearchIndexTest}, which needs Docker.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class StudentNamePrefixQueryTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("Hermione", "hedwig", "Helga", "Harry", "Ha_gr%id", "Draco\\Malfoy")) {
+            Student student = new Student();
+            student.setName(name);
+            student.setAge(12);
+            studentRepository.save(student);
+        }
+    }
+
+    @Test
+    void findUpperCaseNamesLike_MatchesCaseInsensitivelyInOrder() {
+        assertEquals(List.of("HEDWIG", "HELGA", "HERMIONE"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("he"), Pageable.unpaged()));
+    }
+
+    @Test
+    void findUpperCaseNamesLike_ReturnsPages() {
+        assertEquals(List.of("HEDWIG", "HELGA"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("he"), PageRequest.of(0, 2)));
+        assertEquals(List.of("HERMIONE"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("he"), PageRequest.of(1, 2)));
+        assertEquals(List.of(),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("he"), PageRequest.of(2, 2)));
+    }
+
+    @Test
+    void findUpperCaseNamesLike_TreatsWildcardsInPrefixLiterally() {
+        assertEquals(List.of("HA_GR%ID"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("ha_"), Pageable.unpaged()));
+        assertEquals(List.of(),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("h%"), Pageable.unpaged()));
+        assertEquals(List.of("DRACO\\MALFOY"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("draco\\"), Pageable.unpaged()));
+    }
+}
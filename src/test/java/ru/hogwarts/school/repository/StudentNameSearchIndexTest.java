@@ -0,0 +1,82 @@
+package ru.hogwarts.school.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class StudentNameSearchIndexTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(
+                new ClassPathResource("liquibase/scripts/student-name-prefix-index.sql"),
+                new ClassPathResource("liquibase/scripts/student-name-collation.sql")
+        ).execute(dataSource);
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            rows.add(new Object[]{i + 1, "student " + i, 11 + i % 7});
+        }
+        rows.add(new Object[]{10_001, "Hermione", 12});
+        rows.add(new Object[]{10_002, "harry", 11});
+        rows.add(new Object[]{10_003, "Ha_gr%id", 40});
+        jdbcTemplate.batchUpdate("INSERT INTO student (id, name, age) VALUES (?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE student");
+        jdbcTemplate.execute("SET enable_seqscan = off");
+    }
+
+    @Test
+    void findUpperCaseNamesLike_ReturnsSortedPages() {
+        assertEquals(List.of("HARRY", "HA_GR%ID"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("ha"), PageRequest.of(0, 2)));
+        assertEquals(List.of("HERMIONE"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("h"), PageRequest.of(1, 2)));
+        assertEquals(List.of("HA_GR%ID"),
+                studentRepository.findUpperCaseNamesLike(LikePatterns.startingWith("ha_"), PageRequest.of(0, 10)));
+    }
+
+    @Test
+    void findUpperCaseNamesLike_UsesPrefixIndexWithoutSort() {
+        String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN SELECT upper(name) FROM student " +
+                "WHERE upper(name) LIKE upper('stu%') ESCAPE '\\' " +
+                "ORDER BY upper(name) LIMIT 100 OFFSET 0", String.class));
+
+        assertTrue(plan.contains("student_upper_name_prefix_index"), plan);
+        assertFalse(plan.contains("Sort"), plan);
+    }
+}
@@ -0,0 +1,115 @@
+package ru.hogwarts.school.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.service.FacultyStatistics;
+import ru.hogwarts.school.service.StudentService;
+import ru.hogwarts.school.service.StudentServiceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lookups by id are cached by Hibernate's second-level cache, which stores disassembled state:
+ * every caller gets its own instance, so a modified entity never leaks into the cache.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({StudentServiceImpl.class, FacultyStatistics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentRepositoryCacheTest {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long studentId;
+
+    @BeforeEach
+    void setUp() {
+        Student student = new Student();
+        student.setName("Luna Lovegood");
+        student.setAge(16);
+        studentId = studentRepository.save(student).getId();
+
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void findById_SecondLookupIsServedFromCache() {
+        assertTrue(studentRepository.findById(studentId).isPresent());
+        assertTrue(studentRepository.findById(studentId).isPresent());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void forEachStudent_ExportDoesNotFillTheCache() {
+        List<String> names = new ArrayList<>();
+
+        studentService.forEachStudent(student -> names.add(student.getName()));
+
+        assertEquals(List.of("Luna Lovegood"), names);
+        assertEquals(0, statistics.getSecondLevelCachePutCount());
+    }
+
+    @Test
+    void findById_ReturnsIndependentInstances() {
+        Student first = studentRepository.findById(studentId).orElseThrow();
+        first.setAge(99);
+        first.setVersion(42L);
+
+        Student second = studentRepository.findById(studentId).orElseThrow();
+
+        assertNotSame(first, second);
+        assertEquals(16, second.getAge());
+        assertEquals(0L, second.getVersion());
+    }
+
+    @Test
+    void save_IsVisibleToLaterLookups() {
+        Student student = studentRepository.findById(studentId).orElseThrow();
+        student.setAge(17);
+        studentRepository.save(student);
+
+        assertEquals(17, studentRepository.findById(studentId).orElseThrow().getAge());
+    }
+
+    @Test
+    void deleteById_IsVisibleToLaterLookups() {
+        assertTrue(studentRepository.findById(studentId).isPresent());
+        studentRepository.deleteById(studentId);
+
+        assertTrue(studentRepository.findById(studentId).isEmpty());
+    }
+}
@@ -0,0 +1,191 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import ru.hogwarts.school.model.Avatar;
+import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.repository.AvatarRepository;
+import ru.hogwarts.school.repository.StudentRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvatarServiceImplTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private AvatarRepository avatarRepository;
+
+    @Mock
+    private AvatarThumbnailService thumbnailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path avatarsDir;
+
+    private ContentAddressedAvatarStore avatarStore;
+    private AvatarServiceImpl avatarService;
+
+    @BeforeEach
+    void setUp() {
+        avatarStore = new ContentAddressedAvatarStore(avatarsDir.toString(), thumbnailService);
+        avatarService = new AvatarServiceImpl(studentRepository, avatarRepository, thumbnailService, avatarStore,
+                new SimpleMeterRegistry(), transactionManager);
+        ReflectionTestUtils.setField(avatarService, "maxSize", DataSize.ofKilobytes(300));
+    }
+
+    @Test
+    void uploadAvatar_StoresFileWithSniffedTypeAndHash() throws Exception {
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(new Student(1L, "Harry", 11)));
+        when(avatarRepository.findByStudentId(1L)).thenReturn(Optional.empty());
+
+        avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "photo.jpeg", "application/octet-stream", PNG));
+
+        String hash = sha256(PNG);
+        Path stored = avatarStore.resolve(hash, "png");
+        assertEquals(avatarsDir.resolve(hash.substring(0, 2)).resolve(hash + ".png"), stored);
+        assertArrayEquals(PNG, Files.readAllBytes(stored));
+        assertEquals(1, countFiles());
+
+        ArgumentCaptor<Avatar> saved = ArgumentCaptor.forClass(Avatar.class);
+        verify(avatarRepository).save(saved.capture());
+        assertEquals("image/png", saved.getValue().getMediaType());
+        assertEquals(PNG.length, saved.getValue().getFileSize());
+        assertEquals(hash, saved.getValue().getContentHash());
+        verify(thumbnailService).generateThumbnailsAsync(stored);
+    }
+
+    @Test
+    void uploadAvatar_SameContentIsStoredOnce() throws Exception {
+        when(studentRepository.findById(anyLong())).thenAnswer(call -> Optional.of(new Student(call.getArgument(0), "Student", 11)));
+        when(avatarRepository.findByStudentId(anyLong())).thenReturn(Optional.empty());
+
+        avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "crest.png", "image/png", PNG));
+        avatarService.uploadAvatar(2L, new MockMultipartFile("avatar", "crest.png", "image/png", PNG));
+
+        assertEquals(1, countFiles());
+        verify(thumbnailService, times(1)).generateThumbnailsAsync(any());
+    }
+
+    @Test
+    void uploadAvatar_DeletesOldFileOnlyWhenNoLongerReferenced() throws Exception {
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(new Student(1L, "Harry", 11)));
+        when(avatarRepository.findByStudentId(1L)).thenReturn(Optional.empty());
+        avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "crest.png", "image/png", PNG));
+        ArgumentCaptor<Avatar> saved = ArgumentCaptor.forClass(Avatar.class);
+        verify(avatarRepository).save(saved.capture());
+        Path crest = Path.of(saved.getValue().getFilePath());
+
+        byte[] otherPng = PNG.clone();
+        otherPng[PNG.length - 1] = 'X';
+        when(avatarRepository.findByStudentId(1L)).thenReturn(Optional.of(saved.getValue()));
+        when(avatarRepository.countByContentHash(sha256(PNG))).thenReturn(1L, 0L);
+
+        avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "own.png", "image/png", otherPng));
+        assertTrue(Files.exists(crest));
+
+        saved.getValue().setFilePath(crest.toString());
+        saved.getValue().setContentHash(sha256(PNG));
+        avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "own.png", "image/png", otherPng));
+        assertFalse(Files.exists(crest));
+        verify(thumbnailService).deleteThumbnails(crest);
+        assertEquals(1, countFiles());
+    }
+
+    @Test
+    void uploadAvatar_RollbackDeletesNewFileWithoutReferences() throws Exception {
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(new Student(1L, "Harry", 11)));
+        when(avatarRepository.findByStudentId(1L)).thenReturn(Optional.empty());
+        when(avatarRepository.countByContentHash(sha256(PNG))).thenReturn(0L);
+
+        uploadAndRollBack(1L);
+
+        assertEquals(0, countFiles());
+        verify(thumbnailService).deleteThumbnails(avatarStore.resolve(sha256(PNG), "png"));
+    }
+
+    @Test
+    void uploadAvatar_RollbackKeepsFileReferencedByCommittedAvatar() throws Exception {
+        when(studentRepository.findById(anyLong())).thenAnswer(call -> Optional.of(new Student(call.getArgument(0), "Student", 11)));
+        when(avatarRepository.findByStudentId(anyLong())).thenReturn(Optional.empty());
+        avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "crest.png", "image/png", PNG));
+        when(avatarRepository.countByContentHash(sha256(PNG))).thenReturn(1L);
+
+        uploadAndRollBack(2L);
+
+        assertTrue(Files.exists(avatarStore.resolve(sha256(PNG), "png")));
+        verify(thumbnailService, never()).deleteThumbnails(any());
+    }
+
+    private void uploadAndRollBack(long studentId) throws IOException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            avatarService.uploadAvatar(studentId, new MockMultipartFile("avatar", "crest.png", "image/png", PNG));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void uploadAvatar_RejectsUnknownFormatAndCleansUp() throws Exception {
+        when(studentRepository.findById(1L)).thenReturn(Optional.of(new Student(1L, "Harry", 11)));
+
+        MockMultipartFile text = new MockMultipartFile("avatar", "photo.png", "image/png", "not an image".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> avatarService.uploadAvatar(1L, text));
+
+        assertEquals(0, countFiles());
+        verify(avatarRepository, never()).save(any());
+    }
+
+    @Test
+    void uploadAvatar_RejectsFileOverLimit() {
+        byte[] big = new byte[(int) DataSize.ofKilobytes(301).toBytes()];
+        System.arraycopy(PNG, 0, big, 0, PNG.length);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> avatarService.uploadAvatar(1L, new MockMultipartFile("avatar", "big.png", "image/png", big)));
+        verifyNoInteractions(studentRepository, avatarRepository);
+    }
+
+    private long countFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(avatarsDir)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private static String sha256(byte[] content) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    }
+}
@@ -0,0 +1,181 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.hogwarts.school.dto.AvatarInfo;
+import ru.hogwarts.school.dto.AvatarPreview;
+import ru.hogwarts.school.model.Avatar;
+import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.repository.AvatarRepository;
+import ru.hogwarts.school.repository.StudentRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs outside the test transaction: the avatar read paths do not join a caller's transaction,
+ * so they only see committed rows.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.hogwarts.school.service.AvatarServiceQueryCountTest$SqlCapture"
+})
+@Import({AvatarServiceImpl.class, ContentAddressedAvatarStore.class, AvatarThumbnailServiceImpl.class,
+        SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AvatarServiceQueryCountTest {
+
+    @TempDir
+    static Path avatarsDir;
+
+    @DynamicPropertySource
+    static void avatarProperties(DynamicPropertyRegistry registry) {
+        registry.add("avatars.dir.path", () -> avatarsDir.toString());
+    }
+
+    @Autowired
+    private AvatarService avatarService;
+
+    @Autowired
+    private AvatarRepository avatarRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AvatarThumbnailService thumbnailService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        avatarRepository.deleteAll();
+        studentRepository.deleteAll();
+    }
+
+    @Test
+    void getAllAvatars_SelectsMetadataColumnsOnly() {
+        for (int i = 0; i < 3; i++) {
+            Student student = saveStudent("Student " + i);
+            Avatar avatar = new Avatar();
+            avatar.setStudent(student);
+            avatar.setFilePath(avatarsDir.resolve(i + ".png").toString());
+            avatar.setMediaType("image/png");
+            avatar.setFileSize(100 + i);
+            avatarRepository.save(avatar);
+        }
+        statistics.clear();
+        SqlCapture.STATEMENTS.clear();
+
+        Page<AvatarInfo> page = avatarService.getAllAvatars(PageRequest.of(0, 2));
+
+        assertEquals(2, page.getContent().size());
+        assertEquals(3, page.getTotalElements());
+        assertEquals("image/png", page.getContent().get(0).getMediaType());
+        assertNotNull(page.getContent().get(0).getStudentId());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        String select = SqlCapture.STATEMENTS.get(0).toLowerCase(Locale.ROOT);
+        assertFalse(select.contains(" join "), select);
+    }
+
+    @Test
+    void findAvatarPreview_ServesPngThumbnailNotSmallerThanRequested() throws Exception {
+        Student student = saveStudent("Harry");
+        avatarService.uploadAvatar(student.getId(),
+                new MockMultipartFile("avatar", "photo.png", "image/png", png(400, 200)));
+        Path source = Path.of(avatarService.findAvatar(student.getId()).getFilePath());
+        for (int i = 0; i < 100 && thumbnailService.findThumbnail(source, 256) == null; i++) {
+            Thread.sleep(50);
+        }
+
+        AvatarPreview preview = avatarService.findAvatarPreview(student.getId(), 100);
+        assertEquals("image/png", preview.mediaType());
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(preview.data()));
+        assertEquals(128, image.getWidth());
+        assertEquals(64, image.getHeight());
+
+        BufferedImage largest = ImageIO.read(new ByteArrayInputStream(
+                avatarService.findAvatarPreview(student.getId(), 1000).data()));
+        assertEquals(256, largest.getWidth());
+    }
+
+    @Test
+    void findAvatarPreview_FallsBackToOriginalWithItsMediaType() throws Exception {
+        Student student = saveStudent("Ron");
+        byte[] content = {1, 2, 3};
+        Avatar avatar = new Avatar();
+        avatar.setStudent(student);
+        avatar.setFilePath(Files.write(avatarsDir.resolve("ron.gif"), content).toString());
+        avatar.setMediaType("image/gif");
+        avatar.setFileSize(content.length);
+        avatarRepository.save(avatar);
+
+        AvatarPreview preview = avatarService.findAvatarPreview(student.getId(), 64);
+
+        assertEquals("image/gif", preview.mediaType());
+        assertArrayEquals(content, preview.data());
+        assertNull(avatarService.findAvatarPreview(student.getId() + 1000, 64));
+    }
+
+    private Student saveStudent(String name) {
+        Student student = new Student();
+        student.setName(name);
+        student.setAge(12);
+        return studentRepository.save(student);
+    }
+
+    private static byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package ru.hogwarts.school.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AvatarThumbnailServiceImplTest {
+
+    private final AvatarThumbnailServiceImpl thumbnailService =
+            new AvatarThumbnailServiceImpl(new int[]{256, 64, 128}, 1, 10, 10_000_000);
+
+    @TempDir
+    Path avatarsDir;
+
+    @AfterEach
+    void tearDown() {
+        thumbnailService.shutdown();
+    }
+
+    @Test
+    void generateThumbnailsAsync_WritesScaledThumbnails() throws Exception {
+        Path source = avatarsDir.resolve("1.png");
+        ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+
+        assertNull(thumbnailService.findThumbnail(source, 100));
+
+        thumbnailService.generateThumbnailsAsync(source);
+        Path largest = avatarsDir.resolve("1-256.png");
+        for (int i = 0; i < 100 && !Files.exists(largest); i++) {
+            Thread.sleep(50);
+        }
+
+        Path thumbnail = thumbnailService.findThumbnail(source, 100);
+        assertEquals(avatarsDir.resolve("1-128.png"), thumbnail);
+        BufferedImage image = ImageIO.read(thumbnail.toFile());
+        assertEquals(128, image.getWidth());
+        assertEquals(64, image.getHeight());
+        assertEquals(largest, thumbnailService.findThumbnail(source, 1000));
+
+        thumbnailService.deleteThumbnails(source);
+        assertNull(thumbnailService.findThumbnail(source, 100));
+        assertTrue(Files.exists(source));
+    }
+
+    @Test
+    void generateThumbnailsAsync_IgnoresNonImageFiles() throws Exception {
+        Path source = Files.writeString(avatarsDir.resolve("2.txt"), "not an image");
+
+        thumbnailService.generateThumbnailsAsync(source);
+        thumbnailService.shutdown();
+
+        assertNull(thumbnailService.findThumbnail(source, 64));
+    }
+
+    @Test
+    void generateThumbnailsAsync_SkipsImagesAboveThePixelLimit() throws Exception {
+        Path source = Files.write(avatarsDir.resolve("3.png"), pngHeader(50_000, 50_000));
+
+        thumbnailService.generateThumbnailsAsync(source);
+        thumbnailService.shutdown();
+
+        assertNull(thumbnailService.findThumbnail(source, 64));
+    }
+
+    @Test
+    void generateThumbnailsAsync_SubsamplesLargeImages() throws Exception {
+        Path source = avatarsDir.resolve("4.png");
+        ImageIO.write(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+
+        thumbnailService.generateThumbnailsAsync(source);
+        Path largest = avatarsDir.resolve("4-256.png");
+        for (int i = 0; i < 100 && !Files.exists(largest); i++) {
+            Thread.sleep(50);
+        }
+
+        BufferedImage image = ImageIO.read(largest.toFile());
+        assertEquals(256, image.getWidth());
+        assertEquals(128, image.getHeight());
+    }
+
+    /**
+     * PNG signature and IHDR chunk only: enough for a reader to report the dimensions.
+     */
+    private static byte[] pngHeader(int width, int height) throws Exception {
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream();
+        DataOutputStream ihdr = new DataOutputStream(chunk);
+        ihdr.writeBytes("IHDR");
+        ihdr.writeInt(width);
+        ihdr.writeInt(height);
+        ihdr.write(new byte[]{8, 2, 0, 0, 0});
+        CRC32 crc = new CRC32();
+        crc.update(chunk.toByteArray());
+
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(png);
+        out.write(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+        out.writeInt(13);
+        out.write(chunk.toByteArray());
+        out.writeInt((int) crc.getValue());
+        return png.toByteArray();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.ResponseEntity;
+import ru.hogwarts.school.dto.FacultyBatchItem;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({FacultyServiceImpl.class, FacultyStatistics.class, SimpleMeterRegistry.class})
+class FacultyServiceQueryCountTest {
+
+    private static final int FACULTIES = 4;
+    private static final int STUDENTS_PER_FACULTY = 5;
+
+    @Autowired
+    private FacultyService facultyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private long firstFacultyId;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < FACULTIES; i++) {
+            Faculty faculty = new Faculty();
+            faculty.setName("Faculty " + i);
+            faculty.setColor("Color " + i);
+            entityManager.persist(faculty);
+            if (i == 0) {
+                firstFacultyId = faculty.getId();
+            }
+            for (int j = 0; j < STUDENTS_PER_FACULTY; j++) {
+                Student student = new Student();
+                student.setName("Student " + i + "-" + j);
+                student.setAge(17);
+                student.setFaculty(faculty);
+                entityManager.persist(student);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllFaculties_IssuesSingleStatement() {
+        Collection<Faculty> faculties = countStatements(1, () -> facultyService.getAllFaculties());
+
+        assertEquals(FACULTIES, faculties.size());
+    }
+
+    @Test
+    void findFaculty_IssuesSingleStatement() {
+        ResponseEntity<Faculty> response = countStatements(1, () -> facultyService.findFaculty(firstFacultyId));
+
+        assertTrue(response.getStatusCode().is2xxSuccessful());
+    }
+
+    @Test
+    void findByColorAndName_IssueSingleStatementEach() {
+        assertEquals(1, countStatements(1, () -> facultyService.findByColorIgnoreCase("color 1")).size());
+        assertEquals(1, countStatements(1, () -> facultyService.findByNameIgnoreCase("FACULTY 2")).size());
+    }
+
+    @Test
+    void findFacultyWithStudents_FetchesStudentsInSameStatement() {
+        ResponseEntity<Faculty> response = countStatements(1,
+                () -> facultyService.findFacultyWithStudents(firstFacultyId));
+
+        assertEquals(STUDENTS_PER_FACULTY, response.getBody().getStudents().size());
+    }
+
+    @Test
+    void getLongestFacultyName_IssuesSingleStatement() {
+        assertNotNull(countStatements(1, () -> facultyService.getLongestFacultyName()));
+    }
+
+    @Test
+    void getFacultiesByIds_IssuesSingleStatementAndKeepsRequestOrder() {
+        long missingId = firstFacultyId + 1000;
+        List<FacultyBatchItem> items = countStatements(1, () -> facultyService.getFacultiesByIds(
+                List.of(firstFacultyId + 2, missingId, firstFacultyId, firstFacultyId + 2)));
+
+        assertEquals(List.of(firstFacultyId + 2, missingId, firstFacultyId, firstFacultyId + 2),
+                items.stream().map(FacultyBatchItem::id).toList());
+        assertEquals("Faculty 2", items.get(0).faculty().getName());
+        assertFalse(items.get(1).found());
+        assertNull(items.get(1).faculty());
+        assertEquals("Faculty 0", items.get(2).faculty().getName());
+    }
+
+    private <T> T countStatements(long expected, Supplier<T> call) {
+        statistics.clear();
+        T result = call.get();
+        assertEquals(expected, statistics.getPrepareStatementCount(), "Unexpected number of SQL statements");
+        entityManager.clear();
+        return result;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.hogwarts.school.dto.FacultyStats;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+import ru.hogwarts.school.repository.FacultyRepository;
+import ru.hogwarts.school.repository.StudentRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({StudentServiceImpl.class, FacultyServiceImpl.class, FacultyStatistics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FacultyStatisticsTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private FacultyService facultyService;
+
+    @Autowired
+    private FacultyStatistics facultyStatistics;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private FacultyRepository facultyRepository;
+
+    private Faculty gryffindor;
+    private Faculty ravenclaw;
+
+    @BeforeEach
+    void setUp() {
+        facultyStatistics.rebuild();
+        gryffindor = facultyService.addFaculty(new Faculty(0, "Gryffindor", "Red"));
+        ravenclaw = facultyService.addFaculty(new Faculty(0, "Ravenclaw", "Blue"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAll();
+        facultyRepository.deleteAll();
+    }
+
+    @Test
+    void addStudent_UpdatesCountAgesAndLongestName() {
+        studentService.addStudent(student("Harry Potter", 17, gryffindor));
+        studentService.addStudent(student("Hermione Granger", 18, gryffindor));
+        studentService.addStudent(student("Ron Weasley", 16, gryffindor));
+        studentService.addStudent(student("Sirius Black", 40, null));
+
+        FacultyStats stats = statsOf(gryffindor);
+        assertEquals("Gryffindor", stats.facultyName());
+        assertEquals(3, stats.studentCount());
+        assertEquals(17.0, stats.averageAge());
+        assertEquals(16, stats.minAge());
+        assertEquals(18, stats.maxAge());
+        assertEquals("Hermione Granger", stats.longestStudentName());
+
+        FacultyStats empty = statsOf(ravenclaw);
+        assertEquals(0, empty.studentCount());
+        assertNull(empty.minAge());
+        assertNull(empty.longestStudentName());
+    }
+
+    @Test
+    void editAndDeleteStudent_MoveStatsBetweenFaculties() {
+        Student harry = studentService.addStudent(student("Harry Potter", 17, gryffindor));
+        Student hermione = studentService.addStudent(student("Hermione Granger", 18, gryffindor));
+
+        hermione.setFaculty(ravenclaw);
+        hermione.setAge(19);
+        studentService.editStudent(hermione);
+        studentService.deleteStudent(harry.getId());
+
+        assertEquals(0, statsOf(gryffindor).studentCount());
+        assertNull(statsOf(gryffindor).maxAge());
+        assertEquals(1, statsOf(ravenclaw).studentCount());
+        assertEquals(19, statsOf(ravenclaw).maxAge());
+        assertEquals("Hermione Granger", statsOf(ravenclaw).longestStudentName());
+    }
+
+    @Test
+    void rebuild_MatchesIncrementalState() {
+        studentService.addStudent(student("Luna Lovegood", 16, ravenclaw));
+        studentService.addStudent(student("Cho Chang", 17, ravenclaw));
+        facultyService.editFaculty(new Faculty(gryffindor.getId(), "Gryffindor House", "Red"));
+        List<FacultyStats> incremental = facultyStatistics.snapshot();
+
+        facultyStatistics.rebuild();
+
+        assertEquals(incremental, facultyStatistics.snapshot());
+        assertEquals("Gryffindor House", statsOf(gryffindor).facultyName());
+    }
+
+    private FacultyStats statsOf(Faculty faculty) {
+        return facultyService.getFacultyStats().stream()
+                .filter(stats -> stats.facultyId() == faculty.getId())
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Student student(String name, int age, Faculty faculty) {
+        Student student = new Student();
+        student.setName(name);
+        student.setAge(age);
+        student.setFaculty(faculty);
+        return student;
+    }
+}
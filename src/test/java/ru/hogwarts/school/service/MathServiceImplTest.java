@@ -0,0 +1,58 @@
+package ru.hogwarts.school.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.hogwarts.school.dto.SumResult;
+import ru.hogwarts.school.dto.SumStrategy;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MathServiceImplTest {
+
+    private final MathServiceImpl mathService = new MathServiceImpl(4);
+
+    @AfterEach
+    void tearDown() {
+        mathService.shutdown();
+    }
+
+    @Test
+    void sum_AllStrategiesAgree() {
+        long n = 1_234_567L;
+        long expected = n * (n + 1) / 2;
+
+        for (SumStrategy strategy : SumStrategy.values()) {
+            try {
+                SumResult result = mathService.sum(n, strategy, null);
+                assertEquals(expected, result.result(), strategy.name());
+                assertEquals(n, result.n());
+            } catch (UnsupportedOperationException e) {
+                assertEquals(SumStrategy.VIRTUAL_THREADS, strategy);
+            }
+        }
+    }
+
+    @Test
+    void sum_UsesRequestedParallelism() {
+        SumResult result = mathService.sum(100_000L, SumStrategy.FORK_JOIN, 3);
+
+        assertEquals(5_000_050_000L, result.result());
+        assertEquals(3, result.parallelism());
+    }
+
+    @Test
+    void sum_CapsParallelismAtSharedPoolSize() {
+        SumResult result = mathService.sum(100_000L, SumStrategy.FORK_JOIN, MathServiceImpl.MAX_PARALLELISM);
+
+        assertEquals(5_000_050_000L, result.result());
+        assertEquals(4, result.parallelism());
+    }
+
+    @Test
+    void sum_RejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> mathService.sum(0, SumStrategy.SEQUENTIAL, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> mathService.sum(MathServiceImpl.MAX_N + 1, SumStrategy.SEQUENTIAL, null));
+        assertThrows(IllegalArgumentException.class, () -> mathService.sum(10, SumStrategy.FORK_JOIN, 0));
+    }
+}
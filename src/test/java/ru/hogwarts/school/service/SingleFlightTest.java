@@ -0,0 +1,170 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.hogwarts.school.model.Avatar;
+import ru.hogwarts.school.repository.AvatarRepository;
+import ru.hogwarts.school.repository.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void execute_ConcurrentCallersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitCallers(() -> singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "Harry Potter";
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("Harry Potter", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, count("executed"));
+    }
+
+    @Test
+    void execute_FailurePropagatesToEveryCallerAndIsNotRemembered() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = submitCallers(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            throw new IllegalStateException("БД недоступна");
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals("Ron Weasley", singleFlight.execute(1L, () -> "Ron Weasley"));
+        assertEquals(2, count("executed"));
+    }
+
+    @Test
+    void forget_LaterCallersStartFreshLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> stale = executor.submit(() -> singleFlight.execute(1L, () -> {
+            await(release);
+            return "old";
+        }));
+        awaitExecuted(1);
+
+        singleFlight.forget(1L);
+
+        assertEquals("new", singleFlight.execute(1L, () -> "new"));
+        release.countDown();
+        assertEquals("old", stale.get(5, TimeUnit.SECONDS));
+        assertEquals(0, count("coalesced"));
+    }
+
+    @Test
+    void findAvatar_ConcurrentLookupsForOneStudentShareOneQuery() throws Exception {
+        AvatarRepository avatarRepository = mock(AvatarRepository.class);
+        CountDownLatch release = new CountDownLatch(1);
+        Avatar avatar = new Avatar();
+        avatar.setFilePath("avatars/ab/ab.png");
+        when(avatarRepository.findByStudentId(1L)).thenAnswer(call -> {
+            await(release);
+            return Optional.of(avatar);
+        });
+        AvatarServiceImpl avatarService = new AvatarServiceImpl(mock(StudentRepository.class), avatarRepository,
+                mock(AvatarThumbnailService.class), mock(ContentAddressedAvatarStore.class), meterRegistry,
+                mock(PlatformTransactionManager.class));
+
+        List<Future<Avatar>> results = submitCallers(() -> avatarService.findAvatar(1L));
+        awaitCount("avatar", "coalesced", CALLERS - 1);
+        release.countDown();
+
+        for (Future<Avatar> result : results) {
+            assertSame(avatar, result.get(5, TimeUnit.SECONDS));
+        }
+        verify(avatarRepository, times(1)).findByStudentId(1L);
+    }
+
+    private <T> List<Future<T>> submitCallers(Callable<T> call) {
+        List<Future<T>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        return results;
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        awaitCount("test", "coalesced", expected);
+    }
+
+    private void awaitExecuted(int expected) throws InterruptedException {
+        awaitCount("test", "executed", expected);
+    }
+
+    private void awaitCount(String name, String result, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(name, result) < expected) {
+            assertTrue(System.nanoTime() < deadline, "Callers did not reach the single flight in time");
+            Thread.sleep(5);
+        }
+    }
+
+    private double count(String result) {
+        return count("test", result);
+    }
+
+    private double count(String name, String result) {
+        return meterRegistry.get("school.singleflight.calls")
+                .tag("name", name)
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package ru.hogwarts.school.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.hogwarts.school.dto.StudentImportResult;
+import ru.hogwarts.school.repository.StudentRepository;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2"
+})
+@Import({StudentImportServiceImpl.class, FacultyStatistics.class})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StudentImportServiceImplTest {
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @AfterEach
+    void tearDown() {
+        studentRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importCsv_ReportsInvalidRowsAndImportsTheRest() throws Exception {
+        String csv = "name,age,facultyId\n" +
+                "Harry Potter,17,\n" +
+                "Ron Weasley,abc,\n" +
+                "Hermione Granger,17,999\n" +
+                ",16,\n" +
+                "Ginny Weasley,16\n";
+
+        StudentImportResult result = studentImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.imported());
+        assertEquals(3, result.failed());
+        assertEquals(2, result.errors().get(0).row());
+        assertEquals(3, result.errors().get(1).row());
+        assertEquals(4, result.errors().get(2).row());
+        assertEquals(2, studentRepository.count());
+    }
+
+    @Test
+    void importJson_InsertsAllRows() throws Exception {
+        String json = "[{\"name\":\"Luna Lovegood\",\"age\":16},{\"name\":\"Neville Longbottom\",\"age\":17}," +
+                "{\"name\":\"Cho Chang\",\"age\":17}]";
+
+        StudentImportResult result = studentImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(3, result.imported());
+        assertEquals(0, result.failed());
+        assertEquals(3, studentRepository.count());
+    }
+
+    @Test
+    void importJson_RejectsNonArrayBody() {
+        assertThrows(IllegalArgumentException.class, () -> studentImportService.importJson(
+                new ByteArrayInputStream("{\"name\":\"Harry\"}".getBytes(StandardCharsets.UTF_8))));
+    }
+
+    @Test
+    void importCsv_ParsesQuotedFieldsAndKeepsDataRowThatLooksLikeHeader() throws Exception {
+        String csv = "Nameless,12,\n" +
+                "\"Potter, Harry\",17\n";
+
+        StudentImportResult result = studentImportService.importCsv(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(2, result.imported());
+        assertEquals(0, result.failed());
+        assertTrue(studentRepository.findAll().stream().anyMatch(s -> s.getName().equals("Potter, Harry")));
+    }
+
+    @Test
+    void importJson_ReportsBadElementsAndContinues() throws Exception {
+        String json = "[{\"name\":\"Luna Lovegood\",\"age\":\"x\"},5,{\"name\":\"Cho Chang\",\"age\":17}]";
+
+        StudentImportResult result = studentImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.imported());
+        assertEquals(2, result.failed());
+        assertEquals(1, result.errors().get(0).row());
+        assertEquals(2, result.errors().get(1).row());
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    void importJson_BrokenArrayReturnsPartialResult() throws Exception {
+        String json = "[{\"name\":\"Luna Lovegood\",\"age\":16},{\"name\":";
+
+        StudentImportResult result = studentImportService.importJson(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(2, result.errors().get(0).row());
+        assertEquals(1, studentRepository.count());
+    }
+}
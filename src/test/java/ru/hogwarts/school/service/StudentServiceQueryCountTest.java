@@ -0,0 +1,102 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import ru.hogwarts.school.dto.StudentBatchItem;
+import ru.hogwarts.school.dto.StudentSummary;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({StudentServiceImpl.class, FacultyStatistics.class, SimpleMeterRegistry.class})
+class StudentServiceQueryCountTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private final List<Long> studentIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            Faculty faculty = new Faculty();
+            faculty.setName("Faculty " + i);
+            faculty.setColor("Color " + i);
+            entityManager.persist(faculty);
+
+            Student student = new Student();
+            student.setName("Student " + i);
+            student.setAge(17);
+            student.setFaculty(faculty);
+            entityManager.persist(student);
+            studentIds.add(student.getId());
+        }
+        Student withoutFaculty = new Student();
+        withoutFaculty.setName("Student without faculty");
+        withoutFaculty.setAge(18);
+        entityManager.persist(withoutFaculty);
+        studentIds.add(withoutFaculty.getId());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getStudentsByIds_FetchesStudentsAndFacultiesInSingleStatement() {
+        long missingId = studentIds.get(3) + 1000;
+        List<Long> ids = List.of(studentIds.get(2), missingId, studentIds.get(0), studentIds.get(3));
+
+        List<StudentBatchItem> items = studentService.getStudentsByIds(ids);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(ids, items.stream().map(StudentBatchItem::id).toList());
+        assertEquals("Student 2", items.get(0).student().getName());
+        assertEquals("Faculty 2", items.get(0).faculty().getName());
+        assertFalse(items.get(1).found());
+        assertNull(items.get(1).student());
+        assertEquals("Faculty 0", items.get(2).faculty().getName());
+        assertTrue(items.get(3).found());
+        assertNull(items.get(3).faculty());
+    }
+
+    @Test
+    void getStudentsByIds_EmptyRequestSkipsQuery() {
+        assertTrue(studentService.getStudentsByIds(List.of()).isEmpty());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void forEachStudentSummary_ReadsColumnsWithoutLoadingEntities() {
+        List<StudentSummary> summaries = new ArrayList<>();
+
+        studentService.forEachStudentSummary(summaries::add);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(studentIds, summaries.stream().map(StudentSummary::id).toList());
+        assertEquals("Student 0", summaries.get(0).name());
+        assertEquals(18, summaries.get(3).age());
+    }
+}
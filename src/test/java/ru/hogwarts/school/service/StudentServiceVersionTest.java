@@ -0,0 +1,91 @@
+package ru.hogwarts.school.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.hogwarts.school.model.Faculty;
+import ru.hogwarts.school.model.Student;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@Import({StudentServiceImpl.class, FacultyServiceImpl.class, FacultyStatistics.class, SimpleMeterRegistry.class})
+class StudentServiceVersionTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private FacultyService facultyService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private long studentId;
+
+    @BeforeEach
+    void setUp() {
+        Student student = new Student();
+        student.setName("Harry Potter");
+        student.setAge(17);
+        entityManager.persist(student);
+        entityManager.flush();
+        entityManager.clear();
+        studentId = student.getId();
+    }
+
+    @Test
+    void editStudent_IncrementsVersion() {
+        Student updated = studentService.editStudent(new Student(studentId, "Harry Potter", 18), List.of(0L));
+        entityManager.flush();
+
+        assertEquals(1L, updated.getVersion());
+        assertEquals(18, updated.getAge());
+    }
+
+    @Test
+    void editStudent_RejectsStaleVersion() {
+        studentService.editStudent(new Student(studentId, "Harry Potter", 18), List.of(0L));
+        entityManager.flush();
+
+        assertThrows(OptimisticLockingFailureException.class,
+                () -> studentService.editStudent(new Student(studentId, "Harry Potter", 19), List.of(0L, 2L)));
+    }
+
+    @Test
+    void editStudent_WithoutVersionOverwrites() {
+        Student updated = studentService.editStudent(new Student(studentId, "Harry Potter", 20));
+
+        assertEquals(20, updated.getAge());
+        assertNull(studentService.editStudent(new Student(studentId + 1000, "Nobody", 20)));
+    }
+
+    @Test
+    void addStudent_IgnoresClientSuppliedId() {
+        Student created = studentService.addStudent(new Student(studentId, "Ron Weasley", 17));
+        entityManager.flush();
+
+        assertNotEquals(studentId, created.getId());
+        assertEquals(0L, created.getVersion());
+        assertEquals("Harry Potter", entityManager.find(Student.class, studentId).getName());
+    }
+
+    @Test
+    void addFaculty_IgnoresClientSuppliedId() {
+        Faculty created = facultyService.addFaculty(new Faculty(12345L, "Gryffindor", "Red"));
+        entityManager.flush();
+
+        assertNotEquals(12345L, created.getId());
+        assertEquals(0L, created.getVersion());
+    }
+}